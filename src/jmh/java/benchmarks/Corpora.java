@@ -0,0 +1,55 @@
+package benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+// Synthetic data shared by the benchmarks
+final class Corpora {
+    private static final String[] WORDS = {
+            "the", "quick", "brown", "fox", "jumps", "over", "lazy", "dog", "algorithm",
+            "polymorphism", "encapsulation", "runtime", "typing", "practice", "keyboard", "speed"
+    };
+
+    private Corpora() {
+    }
+
+    static String sentence(int length, long seed) {
+        Random rand = new Random(seed);
+        StringBuilder sb = new StringBuilder(length + 16);
+        while (sb.length() < length) {
+            if (sb.length() > 0) sb.append(' ');
+            sb.append(WORDS[rand.nextInt(WORDS.length)]);
+        }
+        sb.setLength(length - 1);
+        return sb.append('.').toString();
+    }
+
+    static Path writeSentences(int count, int length) throws IOException {
+        Path file = Files.createTempFile("corpus-" + count + "-", ".txt");
+        file.toFile().deleteOnExit();
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < count; i++) {
+                writer.write(sentence(length, i));
+                writer.newLine();
+            }
+        }
+        return file;
+    }
+
+    static Path writeScores(int players) throws IOException {
+        Path file = Files.createTempFile("highscores-" + players + "-", ".txt");
+        file.toFile().deleteOnExit();
+        Random rand = new Random(players);
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < players; i++) {
+                writer.write("player" + i + ":" + rand.nextInt(500) * 10);
+                writer.newLine();
+            }
+        }
+        return file;
+    }
+}
@@ -0,0 +1,43 @@
+package benchmarks;
+
+import managers.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+// Whole simulated sessions on a virtual clock
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameEngineBenchmark {
+    @Param({"40", "120"})
+    public int sentenceLength;
+
+    private Path file;
+    private SentenceCorpus corpus;
+    private long seed;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        file = Corpora.writeSentences(1000, sentenceLength);
+        corpus = SentenceCorpus.open(file);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(Paths.get(file + ".idx"));
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public Player session() {
+        return new GameSimulator(seed++, 8.0, 0.05).play(corpus, Difficulty.MEDIUM);
+    }
+}
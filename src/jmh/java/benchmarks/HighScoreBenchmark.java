@@ -0,0 +1,66 @@
+package benchmarks;
+
+import managers.GameSummary;
+import managers.HighScoreManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Thread)
+public class HighScoreBenchmark {
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int players;
+
+    private Path file;
+    private HighScoreManager manager;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        file = Corpora.writeScores(players);
+        manager = new HighScoreManager(file.toString(), false);
+        manager.getLeaderboard(); // First (and only) load from disk
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        String base = file.toString().replaceFirst("\\.txt$", "");
+        Files.deleteIfExists(Paths.get(base + ".journal"));
+        Files.deleteIfExists(Paths.get(base + ".dat"));
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Map<String, Integer> loadScores() {
+        return manager.loadScores();
+    }
+
+    @Benchmark
+    public List<Map.Entry<String, Integer>> getTopScores() {
+        return manager.getTopScores(10);
+    }
+
+    @Benchmark
+    public int getPlayerRank() {
+        return manager.getPlayerRank("player" + (next++ % players), 2500);
+    }
+
+    @Benchmark
+    public GameSummary submitAndSummarize() {
+        // Scores below every stored best, so the journal isn't appended to on each call
+        return manager.submitAndSummarize("player" + (next++ % players), 0, 10);
+    }
+}
@@ -0,0 +1,122 @@
+package benchmarks;
+
+import managers.Difficulty;
+import managers.HighScoreManager;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+// Several JVMs, each with several threads, saving scores into one shared score file at once.
+// Afterwards every player's best score and every recorded game must be on disk.
+//
+//   java -cp target/benchmarks.jar benchmarks.HighScoreStress [processes] [threads] [saves per thread]
+public class HighScoreStress {
+    private static final int PLAYERS_PER_THREAD = 20;
+    private static final int COMPACT_EVERY = 250;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("worker")) {
+            worker(Paths.get(args[1]), Integer.parseInt(args[2]),
+                    Integer.parseInt(args[3]), Integer.parseInt(args[4]));
+            return;
+        }
+
+        int processes = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int saves = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        Path dir = Files.createTempDirectory("highscore-stress");
+
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        String classpath = System.getProperty("java.class.path");
+        long start = System.nanoTime();
+        List<Process> workers = new ArrayList<>();
+        for (int p = 0; p < processes; p++) {
+            workers.add(new ProcessBuilder(java, "-cp", classpath, HighScoreStress.class.getName(), "worker",
+                    dir.toString(), String.valueOf(p), String.valueOf(threads), String.valueOf(saves))
+                    .inheritIO()
+                    .start());
+        }
+        for (Process worker : workers) {
+            if (!worker.waitFor(10, TimeUnit.MINUTES) || worker.exitValue() != 0) {
+                System.err.println("Worker failed");
+                System.exit(1);
+            }
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Expected bests: each thread saves increasing scores, so its last save per player wins
+        Map<String, Integer> expected = new HashMap<>();
+        for (int p = 0; p < processes; p++) {
+            for (int t = 0; t < threads; t++) {
+                for (int i = 0; i < saves; i++) {
+                    expected.merge(playerName(p, t, i), scoreFor(p, t, i), Math::max);
+                    expected.merge("shared", scoreFor(p, t, i), Math::max);
+                }
+            }
+        }
+
+        HighScoreManager manager = HighScoreManager.forDifficulty(Difficulty.EASY, dir, false);
+        Map<String, Integer> actual = manager.loadScores();
+        int lost = 0;
+        for (Map.Entry<String, Integer> entry : expected.entrySet()) {
+            if (!entry.getValue().equals(actual.get(entry.getKey()))) {
+                lost++;
+            }
+        }
+        int games = manager.getTopGames(Integer.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE).size();
+        int expectedGames = processes * threads * saves;
+
+        System.out.printf("%d processes x %d threads x %d saves in %d ms%n", processes, threads, saves, elapsedMillis);
+        System.out.printf("players: %d expected, %d lost; games: %d expected, %d recorded%n",
+                expected.size(), lost, expectedGames, games);
+        deleteRecursively(dir.toFile());
+        System.exit(lost == 0 && games == expectedGames ? 0 : 1);
+    }
+
+    private static void worker(Path dir, int process, int threads, int saves) throws InterruptedException {
+        List<Thread> running = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            Thread worker = new Thread(() -> {
+                HighScoreManager manager = HighScoreManager.forDifficulty(Difficulty.EASY, dir, false);
+                for (int i = 0; i < saves; i++) {
+                    int score = scoreFor(process, thread, i);
+                    manager.saveScore(playerName(process, thread, i), score);
+                    manager.saveScore("shared", score);
+                    manager.recordGame(playerName(process, thread, i), score, i);
+                    if (i % COMPACT_EVERY == COMPACT_EVERY - 1) {
+                        manager.compact();
+                    }
+                }
+            });
+            worker.start();
+            running.add(worker);
+        }
+        for (Thread worker : running) {
+            worker.join();
+        }
+    }
+
+    private static String playerName(int process, int thread, int save) {
+        return "p" + process + "-t" + thread + "-" + save % PLAYERS_PER_THREAD;
+    }
+
+    // Unique per save and increasing within a thread (up to 16 processes and 16 threads)
+    private static int scoreFor(int process, int thread, int save) {
+        return (save * 16 + thread) * 16 + process;
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,74 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import utils.SentenceView;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+// Cost of one keystroke's highlighting update and repaint vs. showing a new sentence
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class HighlightingBenchmark {
+    @Param({"40", "120", "400"})
+    public int sentenceLength;
+
+    private SentenceView view;
+    private String sentence;
+    private String[] prefixes;
+    private int position;
+    private BufferedImage image;
+    private Graphics2D graphics;
+
+    @Setup
+    public void setup() {
+        sentence = Corpora.sentence(sentenceLength, 42);
+        prefixes = new String[sentenceLength + 1];
+        for (int i = 0; i <= sentenceLength; i++) {
+            prefixes[i] = sentence.substring(0, i);
+        }
+        view = new SentenceView(new Font("Courier New", Font.PLAIN, 18));
+        view.setSentence(sentence);
+        view.setSize(740, view.getPreferredSize().height);
+        view.setSize(740, view.getPreferredSize().height); // Once more after wrapping
+
+        image = new BufferedImage(view.getWidth(), view.getHeight(), BufferedImage.TYPE_INT_RGB);
+        graphics = image.createGraphics();
+        position = 0;
+    }
+
+    @TearDown
+    public void tearDown() {
+        graphics.dispose();
+    }
+
+    @Benchmark
+    public void keystroke() {
+        // Types the sentence one character at a time, starting over at the end
+        position = position == sentenceLength ? 0 : position + 1;
+        if (position == 0) {
+            view.setSentence(sentence);
+        }
+        view.update(prefixes[position], Math.max(0, position - 1));
+
+        // Paints what the repaint manager would: the typed cell and the new cursor
+        Rectangle dirty = view.getCellBounds(Math.max(0, position - 1));
+        if (position < sentenceLength) {
+            dirty = dirty.union(view.getCellBounds(position));
+        }
+        graphics.setClip(dirty);
+        view.paint(graphics);
+    }
+
+    @Benchmark
+    public void newSentence() {
+        view.setSentence(sentence);
+        graphics.setClip(null);
+        view.paint(graphics);
+    }
+}
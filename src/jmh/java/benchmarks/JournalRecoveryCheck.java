@@ -0,0 +1,63 @@
+package benchmarks;
+
+import managers.HighScoreManager;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Regression check for a journal left with a torn record by a crash: a score saved afterwards
+// by another process must survive both a reload and a compaction. Exits non-zero if it doesn't.
+//
+//   java -cp target/benchmarks.jar benchmarks.JournalRecoveryCheck
+public class JournalRecoveryCheck {
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("worker")) {
+            new HighScoreManager(args[1], false).submitAndSummarize(args[2], Integer.parseInt(args[3]), 10);
+            return;
+        }
+
+        Path dir = Files.createTempDirectory("journal-recovery");
+        String scores = dir.resolve("scores.dat").toString();
+        new HighScoreManager(scores, false).saveScore("alice", 10);
+
+        // What a crash halfway through appending leaves: a length prefix and part of a name
+        Files.write(dir.resolve("scores.journal"), new byte[] {0, 5, 'c', 'a'}, StandardOpenOption.APPEND);
+
+        // Saved by a second process, which never read the torn record before
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Process worker = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                JournalRecoveryCheck.class.getName(), "worker", scores, "carol", "50")
+                .inheritIO()
+                .start();
+        if (!worker.waitFor(1, TimeUnit.MINUTES) || worker.exitValue() != 0) {
+            System.err.println("Worker failed");
+            System.exit(1);
+        }
+
+        Map<String, Integer> reloaded = new HighScoreManager(scores, false).loadScores();
+        HighScoreManager compacting = new HighScoreManager(scores, false);
+        compacting.compact();
+        Map<String, Integer> compacted = new HighScoreManager(scores, false).loadScores();
+
+        System.out.println("reloaded: " + reloaded + ", after compaction: " + compacted);
+        boolean ok = Integer.valueOf(50).equals(reloaded.get("carol")) && Integer.valueOf(10).equals(reloaded.get("alice"))
+                && reloaded.equals(compacted);
+        deleteRecursively(dir.toFile());
+        System.exit(ok ? 0 : 1);
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+}
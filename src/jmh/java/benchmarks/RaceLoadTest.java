@@ -0,0 +1,133 @@
+package benchmarks;
+
+import managers.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+// A race against the real clock with one simulated typist per virtual thread, typing at human
+// speed with typos, while a view thread refreshes the standings every frame. Reports how long
+// keystrokes and refreshes take as the field grows, then checks the final standings.
+//
+//   java -cp target/benchmarks.jar benchmarks.RaceLoadTest [racers...] [-seconds N] [-sentences N]
+public class RaceLoadTest {
+    private static final long FRAME_MILLIS = 50;
+
+    public static void main(String[] args) throws Exception {
+        List<Integer> fields = new ArrayList<>();
+        int seconds = 20;
+        int sentences = 10;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-seconds")) {
+                seconds = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-sentences")) {
+                sentences = Integer.parseInt(args[++i]);
+            } else {
+                fields.add(Integer.parseInt(args[i]));
+            }
+        }
+        if (fields.isEmpty()) {
+            fields.addAll(Arrays.asList(30, 1000, 10000, 50000));
+        }
+
+        SentenceCorpus corpus = CorpusRegistry.get(Difficulty.EASY);
+        boolean allConsistent = true;
+        for (int racers : fields) {
+            allConsistent &= run(corpus, racers, seconds, sentences);
+        }
+        System.exit(allConsistent ? 0 : 1);
+    }
+
+    private static boolean run(SentenceCorpus corpus, int racerCount, int seconds, int sentences)
+            throws InterruptedException {
+        Race race = new Race(corpus, 42, sentences, seconds, GameClock.SYSTEM);
+        List<Racer> racers = new ArrayList<>();
+        for (int i = 0; i < racerCount; i++) {
+            racers.add(race.join("racer" + i));
+        }
+
+        LongAdder keys = new LongAdder();
+        LongAdder keyNanos = new LongAdder();
+        race.start();
+
+        try (ExecutorService typists = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Racer racer : racers) {
+                typists.submit(() -> type(race, racer, keys, keyNanos));
+            }
+
+            // The view: one refresh per frame, as a standings table would
+            RaceStandings standings = race.getStandings();
+            long refreshes = 0;
+            long refreshNanos = 0;
+            long maxRefreshNanos = 0;
+            long moves = 0;
+            while (!race.isOver()) {
+                Thread.sleep(FRAME_MILLIS);
+                long start = System.nanoTime();
+                moves += standings.refresh();
+                standings.top(10);
+                long elapsed = System.nanoTime() - start;
+                refreshes++;
+                refreshNanos += elapsed;
+                maxRefreshNanos = Math.max(maxRefreshNanos, elapsed);
+            }
+            typists.shutdown();
+            typists.awaitTermination(1, TimeUnit.MINUTES);
+            moves += standings.refresh();
+
+            long keyCount = keys.sum();
+            System.out.printf("%,d racers: %,d keys (%,.0f/s), %.0f ns/key; %,d refreshes, %,d moves, "
+                            + "%.1f us/refresh (max %.1f us); leader %s with %d sentences at %.0f WPM%n",
+                    racerCount, keyCount, keyCount / (double) seconds, keyNanos.sum() / (double) Math.max(1, keyCount),
+                    refreshes, moves, refreshNanos / 1000.0 / Math.max(1, refreshes), maxRefreshNanos / 1000.0,
+                    standings.get(0).getName(), standings.get(0).getCompleted(), standings.get(0).getWpm());
+            return checkStandings(standings, racers);
+        }
+    }
+
+    // A typist with their own speed and typo rate; backspaces over every typo before going on
+    private static void type(Race race, Racer racer, LongAdder keys, LongAdder keyNanos) {
+        ThreadLocalRandom rand = ThreadLocalRandom.current();
+        double charsPerSecond = 3 + rand.nextDouble() * 9;
+        double typoRate = rand.nextDouble() * 0.08;
+        long keyMillis = (long) (1000 / charsPerSecond);
+
+        try {
+            while (!race.isOver() && !racer.isFinished()) {
+                String sentence = racer.getCurrentSentence();
+                for (int i = 0; i < sentence.length() && !race.isOver(); i++) {
+                    Thread.sleep(keyMillis / 2 + rand.nextLong(keyMillis + 1));
+                    long start = System.nanoTime();
+                    if (rand.nextDouble() < typoRate) {
+                        racer.keyTyped(i, '#');
+                        racer.keyDeleted(i);
+                        keys.add(2);
+                    }
+                    racer.keyTyped(i, sentence.charAt(i));
+                    keyNanos.add(System.nanoTime() - start);
+                    keys.increment();
+                }
+                racer.submit(sentence);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Every racer present once, ordered by completed sentences, with nothing left unapplied
+    private static boolean checkStandings(RaceStandings standings, List<Racer> racers) {
+        Set<Racer> seen = new HashSet<>();
+        int lastCompleted = Integer.MAX_VALUE;
+        for (int i = 0; i < standings.size(); i++) {
+            Racer racer = standings.get(i);
+            if (!seen.add(racer) || racer.getCompleted() > lastCompleted
+                    || standings.progressOf(racer) != racer.getCompleted()) {
+                System.err.println("Standings out of order at position " + (i + 1));
+                return false;
+            }
+            lastCompleted = racer.getCompleted();
+        }
+        return seen.size() == racers.size();
+    }
+}
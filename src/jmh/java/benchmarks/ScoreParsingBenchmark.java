@@ -0,0 +1,40 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// The "name:score" line parsing used for highscores.txt
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ScoreParsingBenchmark {
+    private final String[] lines = new String[1024];
+    private int next;
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = "player" + i + ":" + i * 10;
+        }
+    }
+
+    @Benchmark
+    public void split(Blackhole bh) {
+        String[] parts = lines[next++ & 1023].split(":");
+        bh.consume(parts[0]);
+        bh.consume(Integer.parseInt(parts[1]));
+    }
+
+    @Benchmark
+    public void lastIndexOf(Blackhole bh) {
+        String line = lines[next++ & 1023];
+        int colon = line.lastIndexOf(':');
+        bh.consume(line.substring(0, colon));
+        bh.consume(Integer.parseInt(line, colon + 1, line.length(), 10));
+    }
+}
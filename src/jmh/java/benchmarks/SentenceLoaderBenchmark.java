@@ -0,0 +1,60 @@
+package benchmarks;
+
+import managers.SentenceCorpus;
+import managers.SentenceLoader;
+import managers.SentenceMetadata;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SentenceLoaderBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int corpusSize;
+
+    @Param({"60"})
+    public int sentenceLength;
+
+    private Path file;
+    private SentenceLoader loader;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        file = Corpora.writeSentences(corpusSize, sentenceLength);
+        loader = new SentenceLoader(SentenceCorpus.open(file));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(Paths.get(file + ".idx"));
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public String getRandomSentence() {
+        return loader.getRandomSentence();
+    }
+
+    @Benchmark
+    public String getRandomSentenceByWordCount() {
+        // Answered from the metadata index, never by scanning sentence text
+        return loader.getRandomSentence(SentenceMetadata.Column.WORDS, 8, 9);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public SentenceCorpus openCorpus() throws IOException {
+        // Opening with the sidecar index already on disk, as on every start after the first
+        return SentenceCorpus.open(file);
+    }
+}
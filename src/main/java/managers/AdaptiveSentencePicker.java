@@ -0,0 +1,103 @@
+package managers;
+
+import java.io.IOException;
+import java.util.*;
+
+// Draws sentences close to a target SentenceDifficulty score from a pool of corpora. Sentences
+// are grouped into score buckets up front, each with its own IndexSampler, and every bucket
+// knows its nearest non-empty bucket, so a draw is O(1) whatever the target.
+public class AdaptiveSentencePicker {
+    public static final int BUCKET_WIDTH = 50; // Five plain keystrokes
+
+    private final SentenceCorpus[] corpora;
+    private final int[][] bucketCorpus;    // Per bucket: corpus of each member
+    private final int[][] bucketSentence;  // Per bucket: index of each member in its corpus
+    private final IndexSampler[] samplers;
+    private final int[] nearest;           // Bucket to draw from for a target in this bucket
+    private int lastScore;
+
+    public AdaptiveSentencePicker(List<SentenceCorpus> pool, Random rand) {
+        this.corpora = pool.toArray(new SentenceCorpus[0]);
+
+        int maxBucket = 0;
+        for (SentenceCorpus corpus : corpora) {
+            for (int i = 0; i < corpus.size(); i++) {
+                maxBucket = Math.max(maxBucket, corpus.getDifficultyScore(i) / BUCKET_WIDTH);
+            }
+        }
+
+        int[] sizes = new int[maxBucket + 1];
+        for (SentenceCorpus corpus : corpora) {
+            for (int i = 0; i < corpus.size(); i++) {
+                sizes[corpus.getDifficultyScore(i) / BUCKET_WIDTH]++;
+            }
+        }
+
+        bucketCorpus = new int[sizes.length][];
+        bucketSentence = new int[sizes.length][];
+        samplers = new IndexSampler[sizes.length];
+        for (int b = 0; b < sizes.length; b++) {
+            bucketCorpus[b] = new int[sizes[b]];
+            bucketSentence[b] = new int[sizes[b]];
+            samplers[b] = new IndexSampler(sizes[b], rand);
+        }
+
+        int[] filled = new int[sizes.length];
+        for (int c = 0; c < corpora.length; c++) {
+            for (int i = 0; i < corpora[c].size(); i++) {
+                int b = corpora[c].getDifficultyScore(i) / BUCKET_WIDTH;
+                bucketCorpus[b][filled[b]] = c;
+                bucketSentence[b][filled[b]] = i;
+                filled[b]++;
+            }
+        }
+
+        nearest = nearestNonEmpty(sizes);
+    }
+
+    // Every difficulty's sentences in one pool
+    public static AdaptiveSentencePicker forAllDifficulties(Random rand) throws IOException {
+        List<SentenceCorpus> pool = new ArrayList<>();
+        for (Difficulty difficulty : Difficulty.values()) {
+            pool.add(CorpusRegistry.get(difficulty));
+        }
+        return new AdaptiveSentencePicker(pool, rand);
+    }
+
+    // For each bucket the closest one with sentences in it, preferring the easier one on a tie
+    private static int[] nearestNonEmpty(int[] sizes) {
+        int[] nearest = new int[sizes.length];
+        int below = -1;
+        for (int b = 0; b < sizes.length; b++) {
+            if (sizes[b] > 0) below = b;
+            nearest[b] = below;
+        }
+
+        int above = -1;
+        for (int b = sizes.length - 1; b >= 0; b--) {
+            if (sizes[b] > 0) above = b;
+            if (nearest[b] < 0 || (above >= 0 && above - b < b - nearest[b])) {
+                nearest[b] = above;
+            }
+        }
+        if (nearest.length == 0 || nearest[0] < 0) {
+            throw new IllegalStateException("No sentences available!");
+        }
+        return nearest;
+    }
+
+    // A sentence not drawn recently from the bucket nearest to targetScore
+    public String next(int targetScore) {
+        int bucket = nearest[Math.max(0, Math.min(nearest.length - 1, targetScore / BUCKET_WIDTH))];
+        int member = samplers[bucket].next();
+        SentenceCorpus corpus = corpora[bucketCorpus[bucket][member]];
+        int sentence = bucketSentence[bucket][member];
+        lastScore = corpus.getDifficultyScore(sentence);
+        return corpus.get(sentence);
+    }
+
+    // Score of the sentence last returned by next()
+    public int getLastScore() {
+        return lastScore;
+    }
+}
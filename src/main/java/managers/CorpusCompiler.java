@@ -0,0 +1,34 @@
+package managers;
+
+import java.io.IOException;
+import java.nio.file.*;
+
+// Build step run by Maven after compiling: turns every *_sentences.txt in the source directory
+// into a compiled corpus in the output directory, which ends up in the jar next to the classes.
+// Usage: java managers.CorpusCompiler <sentence dir> <output dir>
+// Runs inside Maven's JVM (exec:java), so failures are thrown rather than System.exit().
+public class CorpusCompiler {
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: java managers.CorpusCompiler <sentence dir> <output dir>");
+        }
+        Path source = Paths.get(args[0]);
+        Path output = Paths.get(args[1]);
+        Files.createDirectories(output);
+
+        int compiled = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(source, "*_sentences.txt")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                Path target = output.resolve(SentenceCorpus.compiledName(name));
+                int distinct = SentenceCorpus.compile(file, target);
+                System.out.println("Compiled " + name + ": " + distinct + " distinct sentences, "
+                        + Files.size(target) + " bytes");
+                compiled++;
+            }
+        }
+        if (compiled == 0) {
+            throw new IOException("No *_sentences.txt files in " + source);
+        }
+    }
+}
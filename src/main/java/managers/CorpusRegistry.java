@@ -0,0 +1,65 @@
+package managers;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class CorpusRegistry {
+    // One shared, immutable corpus per difficulty for the whole process
+    private static final Map<Difficulty, CompletableFuture<SentenceCorpus>> corpora = new EnumMap<>(Difficulty.class);
+
+    private static final ExecutorService loader = Executors.newFixedThreadPool(Difficulty.values().length, r -> {
+        Thread t = new Thread(r, "corpus-loader");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private CorpusRegistry() {
+    }
+
+    // Starts loading the corpus in the background (once) and returns its future
+    public static CompletableFuture<SentenceCorpus> preload(Difficulty difficulty) {
+        synchronized (corpora) {
+            CompletableFuture<SentenceCorpus> corpus = corpora.get(difficulty);
+
+            // A failed load is retried on the next request instead of being cached
+            if (corpus == null || corpus.isCompletedExceptionally()) {
+                corpus = CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return SentenceCorpus.load(difficulty.getSentenceFile());
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                }, loader);
+                corpora.put(difficulty, corpus);
+            }
+            return corpus;
+        }
+    }
+
+    // Kicks off loading of every difficulty, e.g. while the start menu is shown
+    public static void preloadAll() {
+        for (Difficulty difficulty : Difficulty.values()) {
+            preload(difficulty).exceptionally(e -> {
+                System.err.println("Error preloading sentences for " + difficulty + ": " + e.getMessage());
+                return null;
+            });
+        }
+    }
+
+    // Blocking access for callers that can't continue without the corpus
+    public static SentenceCorpus get(Difficulty difficulty) throws IOException {
+        try {
+            return preload(difficulty).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
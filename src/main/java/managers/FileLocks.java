@@ -0,0 +1,39 @@
+package managers;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Advisory locks that let several game processes share the score files. The OS holds
+// them per process, so threads are serialized here too: one thread per process holds or
+// waits for a file lock at a time (two waiting threads can also trip the kernel's
+// deadlock detection, which only sees processes).
+final class FileLocks {
+    // Also held while opening any lock file without locking it: closing such a channel
+    // releases every lock this process has on the file
+    static final Object PROCESS_LOCK = new Object();
+
+    // Gets the open, locked channel; read and write the lock file only through it
+    interface LockedAction<T> {
+        T run(FileChannel lock) throws IOException;
+    }
+
+    private FileLocks() {
+    }
+
+    static <T> T withLock(Path lockFile, LockedAction<T> action) throws IOException {
+        synchronized (PROCESS_LOCK) {
+            try (FileChannel channel = FileChannel.open(lockFile,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                FileLock lock = channel.lock();
+                try {
+                    return action.run(channel);
+                } finally {
+                    lock.release();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package managers;
+
+public interface GameClock {
+    GameClock SYSTEM = System::nanoTime;
+
+    // Monotonic time in nanoseconds, only differences are meaningful
+    long nanoTime();
+}
@@ -0,0 +1,258 @@
+package managers;
+
+// All game rules, with no UI: the Swing frame and simulations both drive this
+public class GameEngine implements TimerManager.TimerCallback {
+    public static final int POINTS_PER_SENTENCE = 10;
+    public static final int BONUS_SECONDS = 5;
+    public static final int ROUNDS_PER_SPEED_UP = 5;
+    // Adaptive mode pays POINTS_PER_SENTENCE for a sentence of this score, more for harder ones
+    public static final int ADAPTIVE_REFERENCE_SCORE = 500;
+
+    public interface Listener {
+        void onSentence(String sentence);
+        void onCorrect(int points, int bonusSeconds);
+        void onWrong();
+        void onTimeUpdate(int timeRemaining);
+        void onGameOver(boolean timeUp);
+    }
+
+    private Player player;
+    private Difficulty difficulty;
+    private SentenceLoader loader;
+    private TimerManager timerManager;
+    private GameClock clock;
+    private Listener listener;
+    private KeystrokeRecorder keystrokes;
+    private TypingMetrics metrics;
+    private ReplayWriter replay; // null unless the session is being recorded
+
+    // Adaptive mode: sentences and time budget come from the player's skill, both null otherwise
+    private AdaptiveSentencePicker picker;
+    private SkillModel skill;
+    private int sentenceScore;
+    private long sentenceStartNanos;
+    private int roundTyped;
+    private int roundCorrect;
+
+    private String currentSentence;
+    private boolean active;
+
+    public GameEngine(Player player, Difficulty difficulty, SentenceLoader loader,
+                      Scheduler scheduler, GameClock clock, Listener listener) {
+        this.player = player;
+        this.difficulty = difficulty;
+        this.loader = loader;
+        this.clock = clock;
+        this.listener = listener;
+        this.timerManager = new TimerManager(difficulty.getInitialTime(), this,
+                TimerManager.DEFAULT_REFRESH_MILLIS, scheduler, clock);
+        this.keystrokes = new KeystrokeRecorder();
+        this.metrics = new TypingMetrics(clock);
+        this.active = false;
+    }
+
+    // Records the session from start() on; must be set before start()
+    public void setReplayWriter(ReplayWriter replay) {
+        this.replay = replay;
+    }
+
+    // Each sentence is picked to suit the skill model and gets its own time budget, replacing the
+    // bonus seconds and speed-ups; the model learns from every round. Must be set before start()
+    public void setAdaptive(AdaptiveSentencePicker picker, SkillModel skill) {
+        this.picker = picker;
+        this.skill = skill;
+    }
+
+    public boolean isAdaptive() {
+        return picker != null;
+    }
+
+    public void start() {
+        if (replay != null) {
+            replay.start(clock.nanoTime());
+        }
+        active = true;
+        metrics.start();
+        nextSentence();
+        timerManager.start();
+    }
+
+    // Checks a submitted line; returns true if it matched the current sentence
+    public boolean submit(String typed) {
+        if (!active) return false;
+
+        if (replay != null) {
+            replay.submitted(clock.nanoTime(), typed);
+        }
+
+        // The deadline decides, not when the timer last ticked, so playback sees the same outcome
+        if (timerManager.getTimeRemainingMillis() <= 0) {
+            finish(true);
+            return false;
+        }
+
+        if (isAdaptive() && typed.trim().equals(currentSentence)) {
+            skill.update(sentenceScore, clock.nanoTime() - sentenceStartNanos, roundTyped, roundCorrect);
+            int points = Math.max(1, Math.round((float) POINTS_PER_SENTENCE * sentenceScore / ADAPTIVE_REFERENCE_SCORE));
+            player.addScore(points);
+            player.nextRound();
+            listener.onCorrect(points, 0);
+            nextSentence();
+            return true;
+        }
+
+        if (typed.trim().equals(currentSentence)) {
+            // Correct answer
+            player.addScore(POINTS_PER_SENTENCE);
+            player.nextRound();
+            timerManager.addTime(BONUS_SECONDS);
+            listener.onCorrect(POINTS_PER_SENTENCE, BONUS_SECONDS);
+
+            // Check for speed increase every 5 rounds
+            if ((player.getRound() - 1) % ROUNDS_PER_SPEED_UP == 0 && player.getRound() > 1) {
+                timerManager.adjustSpeedForRound(player.getRound());
+            }
+
+            nextSentence();
+            return true;
+        }
+
+        // Wrong answer
+        player.loseLife();
+        listener.onWrong();
+
+        // Check if game should end
+        if (!player.isAlive()) {
+            finish(false);
+        }
+        return false;
+    }
+
+    // Called for every character the player types at the given input position
+    public void keyTyped(int position, char typed) {
+        if (active) {
+            long now = clock.nanoTime();
+            char expected = expectedAt(position);
+            keystrokes.record(now, position, expected, typed);
+            metrics.record(now, typed == expected);
+            roundTyped++;
+            if (typed == expected) roundCorrect++;
+            if (replay != null) {
+                replay.typed(now, position, typed);
+            }
+        }
+    }
+
+    public void keyDeleted(int position) {
+        if (active) {
+            long now = clock.nanoTime();
+            keystrokes.record(now, position, expectedAt(position), KeystrokeRecorder.BACKSPACE);
+            if (replay != null) {
+                replay.deleted(now, position);
+            }
+        }
+    }
+
+    private char expectedAt(int position) {
+        if (currentSentence == null || position >= currentSentence.length()) {
+            return KeystrokeRecorder.NONE;
+        }
+        return currentSentence.charAt(position);
+    }
+
+    public void stop() {
+        if (active) {
+            metrics.stop();
+        }
+        active = false;
+        timerManager.stop();
+    }
+
+    private void nextSentence() {
+        if (isAdaptive()) {
+            currentSentence = picker.next(skill.targetScore());
+            sentenceScore = picker.getLastScore();
+            timerManager.resetToNewBase(skill.timeBudgetSeconds(sentenceScore));
+            timerManager.start();
+        } else {
+            currentSentence = loader.getRandomSentence();
+        }
+        sentenceStartNanos = clock.nanoTime();
+        roundTyped = 0;
+        roundCorrect = 0;
+        if (replay != null) {
+            replay.sentence(clock.nanoTime(), currentSentence);
+        }
+        listener.onSentence(currentSentence);
+    }
+
+    private void finish(boolean timeUp) {
+        stop();
+        if (timeUp && isAdaptive()) {
+            skill.timedOut();
+        }
+        if (replay != null) {
+            long now = clock.nanoTime();
+            if (timeUp) {
+                replay.timeUp(now);
+            }
+            replay.gameOver(now, player.getScore());
+        }
+        listener.onGameOver(timeUp);
+    }
+
+    // TimerManager.TimerCallback implementation
+    @Override
+    public void onTimeUpdate(int timeRemaining) {
+        listener.onTimeUpdate(timeRemaining);
+    }
+
+    @Override
+    public void onTimeUp() {
+        if (active) {
+            finish(true);
+        }
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public String getCurrentSentence() {
+        return currentSentence;
+    }
+
+    // Drain after each round for per-keystroke analysis
+    public KeystrokeRecorder getKeystrokes() {
+        return keystrokes;
+    }
+
+    // The adaptive skill model as updated by this session, or null outside adaptive mode
+    public SkillModel getSkill() {
+        return skill;
+    }
+
+    public TypingMetrics getMetrics() {
+        return metrics;
+    }
+
+    public int getTimeRemaining() {
+        return timerManager.getTimeRemaining();
+    }
+
+    public long getTimeRemainingMillis() {
+        return timerManager.getTimeRemainingMillis();
+    }
+
+    public GameClock getClock() {
+        return clock;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+}
@@ -0,0 +1,43 @@
+package managers;
+
+// One finished game as stored in the score history
+public final class GameRecord {
+    private final String playerName;
+    private final int score;
+    private final int rounds;
+    private final Difficulty difficulty;
+    private final long timestampMillis;
+
+    public GameRecord(String playerName, int score, int rounds, Difficulty difficulty, long timestampMillis) {
+        this.playerName = playerName;
+        this.score = score;
+        this.rounds = rounds;
+        this.difficulty = difficulty;
+        this.timestampMillis = timestampMillis;
+    }
+
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getRounds() {
+        return rounds;
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    @Override
+    public String toString() {
+        return playerName + ":" + score + " (" + rounds + " rounds, " + difficulty + " @ " + timestampMillis + ")";
+    }
+}
@@ -0,0 +1,82 @@
+package managers;
+
+import java.io.IOException;
+import java.util.Random;
+
+// Plays whole games headlessly on a virtual clock, for tuning and load testing
+public class GameSimulator implements GameEngine.Listener {
+    private final VirtualClock clock = new VirtualClock();
+    private final Random rand;
+    private final double charsPerSecond;
+    private final double errorRate;
+    private boolean gameOver;
+
+    public GameSimulator(long seed, double charsPerSecond, double errorRate) {
+        this.rand = new Random(seed);
+        this.charsPerSecond = charsPerSecond;
+        this.errorRate = errorRate;
+    }
+
+    // Runs one session to the end and returns the final player state
+    public Player play(SentenceCorpus corpus, Difficulty difficulty) {
+        Player player = new Player("simulated");
+        GameEngine engine = new GameEngine(player, difficulty,
+                new SentenceLoader(corpus, new Random(rand.nextLong())), clock, clock, this);
+        engine.start();
+
+        while (!gameOver) {
+            String sentence = engine.getCurrentSentence();
+            clock.advance((long) (sentence.length() * 1000 / charsPerSecond));
+            if (gameOver) break;
+
+            // Simulated typo: the submitted line doesn't match
+            engine.submit(rand.nextDouble() < errorRate ? sentence + "x" : sentence);
+        }
+        return player;
+    }
+
+    // GameEngine.Listener implementation
+    @Override
+    public void onSentence(String sentence) {
+    }
+
+    @Override
+    public void onCorrect(int points, int bonusSeconds) {
+    }
+
+    @Override
+    public void onWrong() {
+    }
+
+    @Override
+    public void onTimeUpdate(int timeRemaining) {
+    }
+
+    @Override
+    public void onGameOver(boolean timeUp) {
+        gameOver = true;
+    }
+
+    // Usage: GameSimulator [sessions] [difficulty] [charsPerSecond] [errorRate]
+    public static void main(String[] args) throws IOException {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        Difficulty difficulty = args.length > 1 ? Difficulty.valueOf(args[1].toUpperCase()) : Difficulty.MEDIUM;
+        double charsPerSecond = args.length > 2 ? Double.parseDouble(args[2]) : 5.0;
+        double errorRate = args.length > 3 ? Double.parseDouble(args[3]) : 0.05;
+
+        SentenceCorpus corpus = CorpusRegistry.get(difficulty);
+        long totalScore = 0;
+        int bestScore = 0;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < sessions; i++) {
+            Player player = new GameSimulator(i, charsPerSecond, errorRate).play(corpus, difficulty);
+            totalScore += player.getScore();
+            bestScore = Math.max(bestScore, player.getScore());
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d %s sessions in %.2fs (%.0f sessions/s), average score %.1f, best %d%n",
+                sessions, difficulty, seconds, sessions / seconds, (double) totalScore / sessions, bestScore);
+    }
+}
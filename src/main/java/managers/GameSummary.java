@@ -0,0 +1,46 @@
+package managers;
+
+import java.util.*;
+
+public final class GameSummary {
+    private final String playerName;
+    private final int score;
+    private final int rank;
+    private final Integer previousBest; // null if the player had no saved score
+    private final boolean newBest;
+    private final List<Map.Entry<String, Integer>> topScores;
+
+    public GameSummary(String playerName, int score, int rank, Integer previousBest,
+                       boolean newBest, List<Map.Entry<String, Integer>> topScores) {
+        this.playerName = playerName;
+        this.score = score;
+        this.rank = rank;
+        this.previousBest = previousBest;
+        this.newBest = newBest;
+        this.topScores = Collections.unmodifiableList(new ArrayList<>(topScores));
+    }
+
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public Integer getPreviousBest() {
+        return previousBest;
+    }
+
+    public boolean isNewBest() {
+        return newBest;
+    }
+
+    public List<Map.Entry<String, Integer>> getTopScores() {
+        return topScores;
+    }
+}
@@ -1,94 +1,454 @@
 package managers;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+// Several game instances (threads or separate processes) may share one score file.
+// Every disk access holds an advisory lock on <base>.lock, which also stores a generation
+// number that each snapshot rewrite bumps, so instances can tell when they must reload.
 public class HighScoreManager {
-    private String filename = "highscores.txt";
+    // Journal size after which it is folded into the snapshot file
+    private static final long COMPACTION_THRESHOLD = 64 * 1024;
+    private static final int MAX_COMPACTION_ATTEMPTS = 5;
 
-    public void saveScore(String name, int score) {
-        Map<String, Integer> scores = loadScores();
+    // The single board from before the split by difficulty is folded into this one
+    private static final Difficulty LEGACY_DIFFICULTY = Difficulty.MEDIUM;
+    private static final String LEGACY_FILE = "highscores.dat";
+
+    private static final ExecutorService compactor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "highscore-compactor");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Resident leaderboards, one per score file, kept in step with the file by sync()
+    private static final Map<String, SharedBoard> boards = new HashMap<>();
+
+    // Tournament server from -Dleaderboard.url, shared so its submissions batch together
+    private static LeaderboardClient defaultRemote;
+    private static boolean defaultRemoteLoaded;
+
+    private static final class SharedBoard {
+        final Leaderboard leaderboard = new Leaderboard();
+        long generation = -1;  // Snapshot generation the leaderboard was loaded from
+        long journalOffset;    // Journal bytes already merged into the leaderboard
+    }
+
+    private String filename = "highscores.dat";
+    private Path dataFile;    // Binary snapshot, e.g. highscores.dat
+    private Path textFile;    // Legacy name:score file, migrated on first load
+    private Path lockFile;
+    private ScoreJournal journal;
+    private ScoreHistory history; // Every game played; only set for per-difficulty managers
+    private LeaderboardClient remote; // Verifying server, or null to keep scores local only
+
+    public HighScoreManager() {
+        this("highscores.dat", true);
+    }
+
+    // filename may name the .txt or .dat file; both share the same base name
+    public HighScoreManager(String filename, boolean forceWrites) {
+        this.filename = filename;
+        String base = filename.replaceFirst("\\.(txt|dat)$", "");
+        this.dataFile = Paths.get(base + ".dat");
+        this.textFile = Paths.get(base + ".txt");
+        this.lockFile = Paths.get(base + ".lock");
+        this.journal = new ScoreJournal(Paths.get(base + ".journal"), forceWrites);
+    }
+
+    // Best scores and game history for one difficulty, so EASY and HARD scores are never compared
+    public static HighScoreManager forDifficulty(Difficulty difficulty) {
+        return forDifficulty(difficulty, false);
+    }
+
+    // Adaptive games follow other rules (sentences from every corpus, points by sentence score,
+    // no bonus seconds), so they get a board and history of their own
+    public static HighScoreManager forDifficulty(Difficulty difficulty, boolean adaptive) {
+        return forDifficulty(difficulty, adaptive, Paths.get(""), true);
+    }
+
+    public static HighScoreManager forDifficulty(Difficulty difficulty, Path dir, boolean forceWrites) {
+        return forDifficulty(difficulty, false, dir, forceWrites);
+    }
 
-        // Update score only if new score is higher, or add new player
-        Integer currentScore = scores.get(name);
-        if (currentScore == null || score > currentScore) {
-            scores.put(name, score);
+    public static HighScoreManager forDifficulty(Difficulty difficulty, boolean adaptive, Path dir, boolean forceWrites) {
+        String mode = adaptive ? "adaptive-" : "";
+        String name = "highscores-" + mode + difficulty.name().toLowerCase() + ".dat";
+        HighScoreManager manager = new HighScoreManager(dir.resolve(name).toString(), forceWrites);
+        Path historyRoot = adaptive ? dir.resolve("history").resolve("adaptive") : dir.resolve("history");
+        try {
+            manager.history = ScoreHistory.open(historyRoot, difficulty, forceWrites);
+        } catch (IOException e) {
+            System.err.println("Error opening score history: " + e.getMessage());
+        }
+        manager.remote = defaultRemote();
+        // The old board only ever held fixed-mode games
+        if (!adaptive && difficulty == LEGACY_DIFFICULTY) {
+            manager.importLegacy(new HighScoreManager(dir.resolve(LEGACY_FILE).toString(), forceWrites));
+        }
+        return manager;
+    }
+
+    // One-time import of the old shared board (highscores.dat, or a not yet migrated
+    // highscores.txt). Both boards are locked, this one first; the old snapshot is renamed to
+    // *.imported once the merged one is written, so a crash in between only repeats the
+    // import, which keeps the best score per player anyway.
+    private void importLegacy(HighScoreManager legacy) {
+        if (!legacy.hasFiles()) return;
+
+        try {
+            withFileLock(lock -> legacy.withFileLock(legacyLock -> {
+                if (!legacy.hasFiles()) return null; // Another instance got there first
+
+                Map<String, Integer> scores = readScores(lock);
+                legacy.readScores(legacyLock).forEach((name, score) -> scores.merge(name, score, Math::max));
+                writeSnapshot(scores, lock);
+                legacy.retire();
+                return null;
+            }));
+        } catch (IOException e) {
+            System.err.println("Error importing " + legacy.dataFile + ": " + e.getMessage());
         }
+    }
+
+    // The text file counts as imported once its migrated snapshot has been
+    private boolean hasFiles() {
+        return Files.exists(dataFile) || (Files.exists(textFile) && !Files.exists(importedFile()));
+    }
+
+    private Path importedFile() {
+        return Paths.get(dataFile + ".imported");
+    }
+
+    // Caller holds the file lock; the journal is already merged into the renamed snapshot
+    private void retire() throws IOException {
+        if (Files.exists(dataFile)) {
+            Files.move(dataFile, importedFile(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        journal.truncate();
+    }
 
-        try (PrintWriter pw = new PrintWriter(new FileWriter(filename))) {
-            for (Map.Entry<String, Integer> entry : scores.entrySet()) {
-                pw.println(entry.getKey() + ":" + entry.getValue());
+    private static synchronized LeaderboardClient defaultRemote() {
+        if (!defaultRemoteLoaded) {
+            defaultRemoteLoaded = true;
+            try {
+                defaultRemote = LeaderboardClient.fromSystemProperties();
+            } catch (IllegalArgumentException e) {
+                System.err.println("Bad " + LeaderboardClient.URL_PROPERTY + ": " + e.getMessage());
             }
+        }
+        return defaultRemote;
+    }
+
+    public void setRemote(LeaderboardClient remote) {
+        this.remote = remote;
+    }
+
+    public boolean hasRemote() {
+        return remote != null;
+    }
+
+    // Sends the game's replay to the tournament server, which replays it before ranking the score.
+    // Completes with "OK <rank>" or "REJECTED <reason>".
+    public CompletableFuture<String> submitReplay(Path replayFile) {
+        if (remote == null) {
+            return CompletableFuture.failedFuture(new IOException("No leaderboard server configured"));
+        }
+        try {
+            return remote.submit(Files.readAllBytes(replayFile));
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public void saveScore(String name, int score) {
+        if (getLeaderboard().submit(name, score)) {
+            persistScore(name, score);
+        }
+    }
+
+    // Saves the score and answers everything the game-over screen needs in one pass
+    public GameSummary submitAndSummarize(String name, int score, int topN) {
+        // Pick up scores other instances saved since we last looked
+        sync();
+
+        Leaderboard leaderboard = getLeaderboard();
+        GameSummary summary;
+        synchronized (leaderboard) {
+            Integer previousBest = leaderboard.getBest(name);
+            boolean newBest = leaderboard.submit(name, score);
+            summary = new GameSummary(name, score, leaderboard.rankOf(name, score),
+                    previousBest, newBest, leaderboard.top(topN));
+        }
+
+        if (summary.isNewBest()) {
+            persistScore(name, score);
+        }
+        return summary;
+    }
+
+    private void persistScore(String name, int score) {
+        // Append one record instead of rewriting the whole file; replay keeps the best score
+        Long journalSize;
+        try {
+            journalSize = withFileLock(lock -> {
+                SharedBoard board = sharedBoard();
+                catchUp(board, lock);
+                journal.truncateTo(board.journalOffset);
+                long size = journal.append(name, score);
+                board.journalOffset = size;
+                return size;
+            });
         } catch (IOException e) {
             System.err.println("Error saving scores: " + e.getMessage());
+            return;
+        }
+
+        if (journalSize > COMPACTION_THRESHOLD) {
+            compactor.execute(this::compact);
         }
     }
 
-    public Map<String, Integer> loadScores() {
+    // Merges scores saved by other instances into the resident leaderboard
+    public void sync() {
+        try {
+            withFileLock(lock -> {
+                catchUp(sharedBoard(), lock);
+                return null;
+            });
+        } catch (IOException e) {
+            System.err.println("Error reading scores: " + e.getMessage());
+        }
+    }
+
+    // Caller holds the file lock
+    private void catchUp(SharedBoard board, FileChannel lock) throws IOException {
+        migrateIfNeeded(lock);
+
+        long generation = readGeneration(lock);
         Map<String, Integer> scores = new HashMap<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(filename))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                String[] parts = line.split(":");
-                if (parts.length == 2) {
-                    try {
-                        scores.put(parts[0], Integer.parseInt(parts[1]));
-                    } catch (NumberFormatException e) {
-                        System.err.println("Invalid score format: " + line);
-                    }
+        if (board.generation != generation) {
+            // The snapshot was rewritten (or never loaded): start over from it
+            scores.putAll(loadSnapshot(lock));
+            board.journalOffset = 0;
+            board.generation = readGeneration(lock); // Moving a corrupt snapshot aside bumps it
+        }
+        board.journalOffset = journal.replayFrom(scores, board.journalOffset);
+
+        // Scores only ever go up, so merging into the old leaderboard is safe
+        for (Map.Entry<String, Integer> entry : scores.entrySet()) {
+            board.leaderboard.submit(entry.getKey(), entry.getValue());
+        }
+    }
+
+    public Map<String, Integer> loadScores() {
+        // Recovery: snapshot first, then replay the journal on top of it
+        try {
+            return withFileLock(this::readScores);
+        } catch (IOException e) {
+            System.err.println("Error reading score journal: " + e.getMessage());
+            return new HashMap<>();
+        }
+    }
+
+    // Caller holds the file lock
+    private Map<String, Integer> readScores(FileChannel lock) throws IOException {
+        migrateIfNeeded(lock);
+        Map<String, Integer> scores = new HashMap<>(loadSnapshot(lock));
+        journal.replay(scores);
+        return scores;
+    }
+
+    // Folds the journal into the snapshot. The merge runs without the lock; the write-back
+    // only happens if no other instance rewrote the snapshot meanwhile (compare-and-swap on
+    // the generation), after re-merging whatever was appended to the journal in between.
+    // An unreadable snapshot is never compacted over.
+    public void compact() {
+        for (int attempt = 0; attempt < MAX_COMPACTION_ATTEMPTS; attempt++) {
+            try {
+                long expected;
+                synchronized (FileLocks.PROCESS_LOCK) {
+                    expected = readGeneration();
                 }
+                Map<String, Integer> merged = new HashMap<>(loadSnapshot());
+                long offset = journal.replayFrom(merged, 0);
+
+                Boolean written = withFileLock(lock -> {
+                    if (readGeneration(lock) != expected) return false;
+                    if (journal.size() == 0) return true;
+
+                    journal.replayFrom(merged, offset);
+                    writeSnapshot(merged, lock);
+                    return true;
+                });
+                if (written) return;
+            } catch (IOException e) {
+                System.err.println("Error compacting scores: " + e.getMessage());
+                return;
             }
-        } catch (IOException e) {
+        }
+        System.err.println("Gave up compacting " + dataFile + ": snapshot kept changing");
+    }
+
+    // Caller holds the file lock. Replaces snapshot + journal and bumps the generation.
+    private void writeSnapshot(Map<String, Integer> scores, FileChannel lock) throws IOException {
+        ScoreStore.writeBinary(dataFile, scores);
+        journal.truncate();
+        writeGeneration(lock, readGeneration(lock) + 1);
+    }
+
+    private Map<String, Integer> loadSnapshot() throws IOException {
+        try {
+            return ScoreStore.readBinary(dataFile);
+        } catch (NoSuchFileException e) {
             // File doesn't exist yet, return empty map
+            return new HashMap<>();
         }
-        return scores;
     }
 
-    public List<Map.Entry<String, Integer>> getTopScores(int limit) {
-        Map<String, Integer> scores = loadScores();
+    // Caller holds the file lock. A snapshot that fails its checks is moved aside to
+    // <name>.corrupt and the scores start over from the journal; any other read error is
+    // passed on, so nothing gets written over a file that may still be good.
+    private Map<String, Integer> loadSnapshot(FileChannel lock) throws IOException {
+        try {
+            return loadSnapshot();
+        } catch (ScoreStore.CorruptFileException e) {
+            Path aside = Paths.get(dataFile + ".corrupt");
+            System.err.println(e.getMessage() + "; moving it to " + aside);
+            Files.move(dataFile, aside, StandardCopyOption.REPLACE_EXISTING);
+            writeGeneration(lock, readGeneration(lock) + 1);
+            return new HashMap<>();
+        }
+    }
+
+    // One-time conversion of the old highscores.txt (and its journal) to the binary format
+    // Caller holds the file lock
+    private void migrateIfNeeded(FileChannel lock) {
+        if (Files.exists(dataFile) || !Files.exists(textFile)) return;
+
+        try {
+            Map<String, Integer> scores = ScoreStore.readText(textFile);
+            ScoreJournal legacyJournal = new ScoreJournal(Paths.get(textFile + ".journal"), true);
+            legacyJournal.replay(scores);
 
-        return scores.entrySet()
-                .stream()
-                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-                .limit(limit)
-                .collect(ArrayList::new,
-                        (list, entry) -> list.add(entry),
-                        (list1, list2) -> list1.addAll(list2));
+            ScoreStore.writeBinary(dataFile, scores);
+            Files.deleteIfExists(Paths.get(textFile + ".journal"));
+            writeGeneration(lock, readGeneration(lock) + 1);
+        } catch (IOException e) {
+            System.err.println("Error migrating " + textFile + ": " + e.getMessage());
+        }
     }
 
-    public boolean isNewHighScore(String name, int score) {
-        Map<String, Integer> scores = loadScores();
-        Integer currentScore = scores.get(name);
-        return currentScore == null || score > currentScore;
+    // Writes every best score as name:score text
+    public void exportText(Path path) throws IOException {
+        ScoreStore.writeText(path, getLeaderboard().toMap());
     }
 
-    public int getPlayerRank(String name, int score) {
-        List<Map.Entry<String, Integer>> topScores = getTopScores(Integer.MAX_VALUE);
-
-        // Create a temporary entry for the current player
-        boolean found = false;
-        for (int i = 0; i < topScores.size(); i++) {
-            if (topScores.get(i).getKey().equals(name)) {
-                topScores.get(i).setValue(Math.max(score, topScores.get(i).getValue()));
-                found = true;
-                break;
-            }
+    // Merges a name:score text file into the high scores, keeping the better score per player
+    public void importText(Path path) throws IOException {
+        Map<String, Integer> imported = ScoreStore.readText(path);
+        withFileLock(lock -> {
+            Map<String, Integer> scores = readScores(lock);
+            imported.forEach((name, score) -> scores.merge(name, score, Math::max));
+            writeSnapshot(scores, lock);
+            return null;
+        });
+        sync();
+    }
+
+    // Appends the game to the history; best scores are saved separately via saveScore/submitAndSummarize
+    public void recordGame(String name, int score, int rounds) {
+        if (history == null) return;
+
+        try {
+            history.append(name, score, rounds, System.currentTimeMillis());
+        } catch (IOException e) {
+            System.err.println("Error saving game history: " + e.getMessage());
         }
+    }
 
-        if (!found) {
-            topScores.add(new AbstractMap.SimpleEntry<>(name, score));
+    // Best single games played between fromMillis (inclusive) and toMillis (exclusive)
+    public List<GameRecord> getTopGames(int limit, long fromMillis, long toMillis) {
+        if (history == null) return new ArrayList<>();
+
+        try {
+            return history.top(limit, fromMillis, toMillis);
+        } catch (IOException e) {
+            System.err.println("Error reading game history: " + e.getMessage());
+            return new ArrayList<>();
         }
+    }
+
+    public List<GameRecord> getGameHistory(String name) {
+        if (history == null) return new ArrayList<>();
 
-        // Re-sort
-        topScores.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+        try {
+            return history.historyOf(name);
+        } catch (IOException e) {
+            System.err.println("Error reading game history: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
 
-        // Find rank
-        for (int i = 0; i < topScores.size(); i++) {
-            if (topScores.get(i).getKey().equals(name)) {
-                return i + 1;
+    public Leaderboard getLeaderboard() {
+        SharedBoard board = sharedBoard();
+        synchronized (board) {
+            if (board.generation < 0) {
+                sync();
             }
         }
+        return board.leaderboard;
+    }
+
+    private SharedBoard sharedBoard() {
+        synchronized (boards) {
+            return boards.computeIfAbsent(dataFile.toAbsolutePath().normalize().toString(), f -> new SharedBoard());
+        }
+    }
+
+    private <T> T withFileLock(FileLocks.LockedAction<T> action) throws IOException {
+        return FileLocks.withLock(lockFile, action);
+    }
+
+    // Caller holds FileLocks.PROCESS_LOCK: closing this channel must not drop another thread's file lock
+    private long readGeneration() throws IOException {
+        if (!Files.exists(lockFile)) return 0;
+
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.READ)) {
+            return readGeneration(channel);
+        }
+    }
+
+    private static long readGeneration(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, buffer.position()) < 0) return 0;
+        }
+        return buffer.getLong(0);
+    }
+
+    private static void writeGeneration(FileChannel lock, long generation) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8).putLong(0, generation);
+        while (buffer.hasRemaining()) {
+            lock.write(buffer, buffer.position());
+        }
+    }
+
+    public List<Map.Entry<String, Integer>> getTopScores(int limit) {
+        return getLeaderboard().top(limit);
+    }
 
-        return topScores.size(); // Fallback
+    public boolean isNewHighScore(String name, int score) {
+        return getLeaderboard().isNewBest(name, score);
+    }
+
+    public int getPlayerRank(String name, int score) {
+        return getLeaderboard().rankOf(name, score);
     }
 }
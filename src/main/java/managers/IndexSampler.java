@@ -0,0 +1,80 @@
+package managers;
+
+import java.util.Random;
+
+public class IndexSampler {
+    private final int[] indices;
+    private final int[] positions; // Where each index currently sits in indices
+    private final Random rand;
+    private int remaining; // indices[0..remaining) have not been drawn this cycle
+
+    public IndexSampler(int size, Random rand) {
+        this.indices = new int[size];
+        this.positions = new int[size];
+        this.rand = rand;
+        for (int i = 0; i < size; i++) {
+            indices[i] = i;
+            positions[i] = i;
+        }
+        this.remaining = size;
+    }
+
+    // Draws a uniformly random index that hasn't been drawn since the last reset
+    public int next() {
+        if (indices.length == 0) {
+            throw new IllegalStateException("Nothing to sample from!");
+        }
+
+        // All indices used: start a new cycle, the array is still a permutation
+        if (remaining == 0) {
+            remaining = indices.length;
+        }
+
+        // Swap the pick to the end of the unused region instead of removing it
+        int chosen = indices[rand.nextInt(remaining)];
+        markDrawn(chosen);
+        return chosen;
+    }
+
+    public boolean isDrawn(int index) {
+        return positions[index] >= remaining;
+    }
+
+    // Counts an index chosen some other way (e.g. by a filtered query) as drawn this cycle
+    public void markDrawn(int index) {
+        if (isDrawn(index)) return;
+
+        int pick = positions[index];
+        remaining--;
+        int last = indices[remaining];
+        indices[pick] = last;
+        positions[last] = pick;
+        indices[remaining] = index;
+        positions[index] = remaining;
+    }
+
+    // Makes a drawn index available again within the current cycle
+    public void release(int index) {
+        if (!isDrawn(index)) return;
+
+        int pick = positions[index];
+        int first = indices[remaining];
+        indices[pick] = first;
+        positions[first] = pick;
+        indices[remaining] = index;
+        positions[index] = remaining;
+        remaining++;
+    }
+
+    public int remaining() {
+        return remaining;
+    }
+
+    public int size() {
+        return indices.length;
+    }
+
+    public void reset() {
+        remaining = indices.length;
+    }
+}
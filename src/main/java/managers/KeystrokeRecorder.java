@@ -0,0 +1,83 @@
+package managers;
+
+// Fixed-size ring buffer of keystrokes kept in parallel primitive arrays, so recording
+// allocates nothing. Not thread-safe: record and drain from the same thread (the EDT).
+public class KeystrokeRecorder {
+    public static final int DEFAULT_CAPACITY = 4096;
+    public static final char BACKSPACE = '\b';
+    public static final char NONE = '\0'; // Expected char when typing past the sentence
+
+    public interface KeystrokeVisitor {
+        void visit(long timestampNanos, int position, char expected, char typed, boolean correct);
+    }
+
+    private final long[] timestamps;
+    private final int[] positions;
+    private final char[] expected;
+    private final char[] typed;
+    private final boolean[] correct;
+    private final int mask;
+
+    private long written; // Total keystrokes ever recorded
+    private long read;    // Total keystrokes drained or overwritten
+    private long dropped; // Overwritten before they were drained
+
+    public KeystrokeRecorder() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public KeystrokeRecorder(int capacity) {
+        // Round up to a power of two so the slot is a mask instead of a modulo
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.timestamps = new long[size];
+        this.positions = new int[size];
+        this.expected = new char[size];
+        this.typed = new char[size];
+        this.correct = new boolean[size];
+        this.mask = size - 1;
+    }
+
+    public void record(long timestampNanos, int position, char expectedChar, char typedChar) {
+        // Full: the oldest keystroke is overwritten
+        if (written - read == timestamps.length) {
+            read++;
+            dropped++;
+        }
+
+        int slot = (int) (written & mask);
+        timestamps[slot] = timestampNanos;
+        positions[slot] = position;
+        expected[slot] = expectedChar;
+        typed[slot] = typedChar;
+        correct[slot] = typedChar == expectedChar && expectedChar != NONE;
+        written++;
+    }
+
+    // Hands every pending keystroke to the visitor, oldest first, and returns how many there were
+    public int drain(KeystrokeVisitor visitor) {
+        int count = 0;
+        while (read < written) {
+            int slot = (int) (read & mask);
+            visitor.visit(timestamps[slot], positions[slot], expected[slot], typed[slot], correct[slot]);
+            read++;
+            count++;
+        }
+        return count;
+    }
+
+    public int pending() {
+        return (int) (written - read);
+    }
+
+    public long getTotalRecorded() {
+        return written;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public int getCapacity() {
+        return timestamps.length;
+    }
+}
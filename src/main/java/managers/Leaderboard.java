@@ -0,0 +1,195 @@
+package managers;
+
+import java.util.*;
+
+public class Leaderboard {
+    // Upper bound for the Fenwick tree so a bogus score can't blow up memory
+    public static final int MAX_SCORE = (1 << 22) - 1;
+
+    private final Map<String, Integer> bestScores = new HashMap<>();
+
+    // Players grouped by score, highest first, names in alphabetical order for stable ties
+    private final TreeMap<Integer, TreeSet<String>> playersByScore = new TreeMap<>(Comparator.reverseOrder());
+
+    // Fenwick tree over score values: counts[s + 1] accumulates players whose best is s
+    private int[] counts = new int[1025];
+    private int playerCount;
+
+    public Leaderboard() {
+    }
+
+    public Leaderboard(Map<String, Integer> scores) {
+        for (Map.Entry<String, Integer> entry : scores.entrySet()) {
+            submit(entry.getKey(), entry.getValue());
+        }
+    }
+
+    // Records a score, returns true if it is the player's new personal best
+    public synchronized boolean submit(String name, int score) {
+        if (score < 0 || score > MAX_SCORE) {
+            System.err.println("Ignoring out-of-range score for " + name + ": " + score);
+            return false;
+        }
+
+        Integer previous = bestScores.get(name);
+        if (previous != null && previous >= score) {
+            return false;
+        }
+
+        ensureCapacity(score);
+        if (previous != null) {
+            removeFromScore(name, previous);
+        } else {
+            playerCount++;
+        }
+        bestScores.put(name, score);
+        playersByScore.computeIfAbsent(score, s -> new TreeSet<>()).add(name);
+        addCount(score, 1);
+        return true;
+    }
+
+    public synchronized Integer getBest(String name) {
+        return bestScores.get(name);
+    }
+
+    public synchronized boolean isNewBest(String name, int score) {
+        Integer current = bestScores.get(name);
+        return current == null || score > current;
+    }
+
+    // Rank the player would hold with this score (ties share a rank)
+    public synchronized int rankOf(String name, int score) {
+        Integer current = bestScores.get(name);
+        int effective = current == null ? score : Math.max(current, score);
+        return countAbove(effective) + 1;
+    }
+
+    public synchronized List<Map.Entry<String, Integer>> top(int limit) {
+        List<Map.Entry<String, Integer>> result = new ArrayList<>(Math.min(limit, playerCount));
+        for (Map.Entry<Integer, TreeSet<String>> bucket : playersByScore.entrySet()) {
+            for (String name : bucket.getValue()) {
+                if (result.size() >= limit) return result;
+                result.add(new AbstractMap.SimpleImmutableEntry<>(name, bucket.getKey()));
+            }
+        }
+        return result;
+    }
+
+    // Rows [offset, offset + limit) of the full ranking, in the same order as top().
+    // The Fenwick tree finds the score bucket holding row offset without walking the ones above it.
+    public synchronized List<Map.Entry<String, Integer>> range(int offset, int limit) {
+        List<Map.Entry<String, Integer>> result = new ArrayList<>(Math.max(0, Math.min(limit, playerCount - offset)));
+        if (offset < 0 || offset >= playerCount || limit <= 0) return result;
+
+        int score = scoreAtRow(offset);
+        int skip = offset - countAbove(score);
+        for (Map.Entry<Integer, TreeSet<String>> bucket : playersByScore.tailMap(score, true).entrySet()) {
+            TreeSet<String> names = bucket.getValue();
+            Iterator<String> it = names.iterator();
+            if (skip > 0) {
+                it = skipInto(names, skip);
+                skip = 0;
+            }
+            while (it.hasNext()) {
+                if (result.size() >= limit) return result;
+                result.add(new AbstractMap.SimpleImmutableEntry<>(it.next(), bucket.getKey()));
+            }
+        }
+        return result;
+    }
+
+    // Position of the player's row in the ranking, or -1 if they have no score
+    public synchronized int indexOf(String name) {
+        Integer best = bestScores.get(name);
+        if (best == null) return -1;
+        return countAbove(best) + playersByScore.get(best).headSet(name).size();
+    }
+
+    public synchronized int size() {
+        return playerCount;
+    }
+
+    public synchronized Map<String, Integer> toMap() {
+        return new HashMap<>(bestScores);
+    }
+
+    private void removeFromScore(String name, int score) {
+        TreeSet<String> names = playersByScore.get(score);
+        names.remove(name);
+        if (names.isEmpty()) {
+            playersByScore.remove(score);
+        }
+        addCount(score, -1);
+    }
+
+    // Number of players whose best score is strictly greater than score
+    private int countAbove(int score) {
+        if (score < 0) return playerCount;
+        return playerCount - prefixCount(Math.min(score, counts.length - 2));
+    }
+
+    // Score of the player at a 0-based row, highest score first
+    private int scoreAtRow(int row) {
+        // Row counted from the bottom; find the largest index whose prefix sum is <= it
+        int target = playerCount - 1 - row;
+        int index = 0;
+        for (int step = Integer.highestOneBit(counts.length - 1); step > 0; step >>= 1) {
+            int next = index + step;
+            if (next < counts.length && counts[next] <= target) {
+                index = next;
+                target -= counts[next];
+            }
+        }
+        // counts[s + 1] holds score s, so the first index past the prefix is score "index"
+        return index;
+    }
+
+    // Iterator positioned skip names into the bucket, walking from whichever end is closer
+    private static Iterator<String> skipInto(TreeSet<String> names, int skip) {
+        if (skip <= names.size() / 2) {
+            Iterator<String> it = names.iterator();
+            for (int i = 0; i < skip; i++) it.next();
+            return it;
+        }
+
+        Iterator<String> back = names.descendingIterator();
+        String first = null;
+        for (int i = names.size() - skip; i > 0; i--) first = back.next();
+        return names.tailSet(first, true).iterator();
+    }
+
+    private void addCount(int score, int delta) {
+        for (int i = score + 1; i < counts.length; i += i & -i) {
+            counts[i] += delta;
+        }
+    }
+
+    // Number of players whose best score is <= score
+    private int prefixCount(int score) {
+        int sum = 0;
+        for (int i = score + 1; i > 0; i -= i & -i) {
+            sum += counts[i];
+        }
+        return sum;
+    }
+
+    private void ensureCapacity(int score) {
+        if (score + 1 < counts.length) return;
+
+        int size = counts.length - 1;
+        while (size <= score) {
+            size <<= 1;
+        }
+
+        // Rebuild the tree at the larger size from the per-score totals
+        int[] grown = new int[size + 1];
+        for (Map.Entry<Integer, TreeSet<String>> bucket : playersByScore.entrySet()) {
+            int s = bucket.getKey();
+            int n = bucket.getValue().size();
+            for (int i = s + 1; i <= size; i += i & -i) {
+                grown[i] += n;
+            }
+        }
+        counts = grown;
+    }
+}
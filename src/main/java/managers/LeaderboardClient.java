@@ -0,0 +1,180 @@
+package managers;
+
+import java.io.*;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+// Talks to a LeaderboardServer. Submissions are queued and sent together: the first one
+// waits up to BATCH_WINDOW_MILLIS for others to share its request.
+public class LeaderboardClient implements Closeable {
+    // Set -Dleaderboard.url=http://localhost:8642 to submit games to a tournament server
+    public static final String URL_PROPERTY = "leaderboard.url";
+
+    private static final int MAX_BATCH = 64;
+    private static final long BATCH_WINDOW_MILLIS = 200;
+
+    private final URI baseUri;
+    private final HttpClient http;
+    private final BlockingQueue<Submission> queue = new LinkedBlockingQueue<>();
+    private final Thread sender;
+    private volatile boolean closed;
+
+    private static final class Submission {
+        final byte[] replay;
+        final CompletableFuture<String> result = new CompletableFuture<>();
+
+        Submission(byte[] replay) {
+            this.replay = replay;
+        }
+    }
+
+    public LeaderboardClient(URI baseUri) {
+        this.baseUri = baseUri;
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.sender = new Thread(this::sendLoop, "leaderboard-client");
+        this.sender.setDaemon(true);
+        this.sender.start();
+    }
+
+    // The client named by -Dleaderboard.url, or null when no server is configured
+    public static LeaderboardClient fromSystemProperties() {
+        String url = System.getProperty(URL_PROPERTY);
+        if (url == null || url.isEmpty()) return null;
+        return new LeaderboardClient(URI.create(url));
+    }
+
+    // Completes with the server's verdict: "OK <rank>" or "REJECTED <reason>"
+    public CompletableFuture<String> submit(byte[] replay) {
+        Submission submission = new Submission(replay);
+        if (closed) {
+            submission.result.completeExceptionally(new IOException("Leaderboard client is closed"));
+        } else {
+            queue.add(submission);
+        }
+        return submission.result;
+    }
+
+    public List<Map.Entry<String, Integer>> top(Difficulty difficulty, int limit)
+            throws IOException, InterruptedException {
+        return top(difficulty, false, limit);
+    }
+
+    // adaptive selects the board for adaptive-mode games
+    public List<Map.Entry<String, Integer>> top(Difficulty difficulty, boolean adaptive, int limit)
+            throws IOException, InterruptedException {
+        String body = get("/top?difficulty=" + difficulty.name() + mode(adaptive) + "&limit=" + limit);
+        List<Map.Entry<String, Integer>> scores = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            int colon = line.lastIndexOf(':');
+            if (colon <= 0) continue;
+            scores.add(new AbstractMap.SimpleImmutableEntry<>(line.substring(0, colon),
+                    Integer.parseInt(line.substring(colon + 1))));
+        }
+        return scores;
+    }
+
+    // The player's rank on the server, or -1 if the server has no score for them
+    public int rank(Difficulty difficulty, String name) throws IOException, InterruptedException {
+        return rank(difficulty, false, name);
+    }
+
+    public int rank(Difficulty difficulty, boolean adaptive, String name) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(baseUri.resolve(
+                        "/rank?difficulty=" + difficulty.name() + mode(adaptive)
+                                + "&name=" + URLEncoder.encode(name, StandardCharsets.UTF_8)))
+                .GET().build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 404) return -1;
+        if (response.statusCode() != 200) {
+            throw new IOException("Leaderboard server returned " + response.statusCode() + ": " + response.body());
+        }
+        return Integer.parseInt(response.body().split(" ")[0]);
+    }
+
+    private static String mode(boolean adaptive) {
+        return adaptive ? "&mode=adaptive" : "";
+    }
+
+    private String get(String path) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(baseUri.resolve(path)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("Leaderboard server returned " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    private void sendLoop() {
+        List<Submission> batch = new ArrayList<>();
+        while (!closed || !queue.isEmpty()) {
+            try {
+                Submission first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(BATCH_WINDOW_MILLIS);
+                while (batch.size() < MAX_BATCH) {
+                    Submission next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                send(batch);
+            } catch (InterruptedException e) {
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void send(List<Submission> batch) throws InterruptedException {
+        int size = 4;
+        for (Submission submission : batch) {
+            size += 4 + submission.replay.length;
+        }
+        ByteBuffer body = ByteBuffer.allocate(size);
+        body.putInt(batch.size());
+        for (Submission submission : batch) {
+            body.putInt(submission.replay.length).put(submission.replay);
+        }
+
+        try {
+            HttpResponse<String> response = http.send(HttpRequest.newBuilder(baseUri.resolve("/submit"))
+                    .header("Content-Type", "application/octet-stream")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body.array()))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IOException("Leaderboard server returned " + response.statusCode() + ": " + response.body());
+            }
+
+            String[] verdicts = response.body().split("\n");
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result.complete(i < verdicts.length ? verdicts[i] : "REJECTED no verdict");
+            }
+        } catch (IOException e) {
+            for (Submission submission : batch) {
+                submission.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    // Sends whatever is still queued, then stops the sender thread
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            sender.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
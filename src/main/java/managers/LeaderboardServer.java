@@ -0,0 +1,218 @@
+package managers;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Tournament leaderboard that only trusts scores it has replayed itself. Listens on the
+// loopback interface only. Every request runs on its own virtual thread.
+//
+//   POST /submit                      body: [i32 count] count x ([i32 length][replay file bytes])
+//                                     reply: one line per replay, "OK <rank>" or "REJECTED <reason>"
+//   GET  /top?difficulty=HARD&limit=10   reply: one "name:score" line per player
+//   GET  /rank?difficulty=HARD&name=Ann  reply: "<rank> <score>", 404 if the player has no score
+// Adaptive games have boards of their own: add mode=adaptive to either query.
+public class LeaderboardServer {
+    public static final int DEFAULT_PORT = 8642;
+    private static final int MAX_BODY_BYTES = 16 << 20;
+    private static final int MAX_BATCH = 256;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<Difficulty, Leaderboard> leaderboards = new EnumMap<>(Difficulty.class);
+    private final Map<Difficulty, Leaderboard> adaptiveLeaderboards = new EnumMap<>(Difficulty.class);
+    private final Set<String> seenSessions = ConcurrentHashMap.newKeySet();
+
+    public LeaderboardServer(int port) throws IOException {
+        for (Difficulty difficulty : Difficulty.values()) {
+            leaderboards.put(difficulty, new Leaderboard());
+            adaptiveLeaderboards.put(difficulty, new Leaderboard());
+        }
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/submit", this::handleSubmit);
+        server.createContext("/top", this::handleTop);
+        server.createContext("/rank", this::handleRank);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public Leaderboard getLeaderboard(Difficulty difficulty) {
+        return getLeaderboard(difficulty, false);
+    }
+
+    public Leaderboard getLeaderboard(Difficulty difficulty, boolean adaptive) {
+        return (adaptive ? adaptiveLeaderboards : leaderboards).get(difficulty);
+    }
+
+    private void handleSubmit(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                send(exchange, 405, "POST only");
+                return;
+            }
+
+            byte[] body = exchange.getRequestBody().readNBytes(MAX_BODY_BYTES + 1);
+            if (body.length > MAX_BODY_BYTES) {
+                send(exchange, 413, "Submission too large");
+                return;
+            }
+
+            List<byte[]> replays;
+            try {
+                replays = unpackBatch(body);
+            } catch (IOException e) {
+                send(exchange, 400, e.getMessage());
+                return;
+            }
+
+            StringBuilder reply = new StringBuilder();
+            for (byte[] replay : replays) {
+                reply.append(submit(replay)).append('\n');
+            }
+            send(exchange, 200, reply.toString());
+        }
+    }
+
+    // Verifies one replay and, if it holds up, records its score
+    String submit(byte[] replay) {
+        ScoreVerifier.Verdict verdict = ScoreVerifier.verify(replay);
+        if (!verdict.isAccepted()) {
+            return "REJECTED " + verdict.getReason();
+        }
+        if (!seenSessions.add(verdict.getSessionKey())) {
+            return "REJECTED already submitted";
+        }
+
+        Leaderboard leaderboard = getLeaderboard(verdict.getDifficulty(), verdict.isAdaptive());
+        leaderboard.submit(verdict.getPlayerName(), verdict.getScore());
+        return "OK " + leaderboard.rankOf(verdict.getPlayerName(), verdict.getScore());
+    }
+
+    private static List<byte[]> unpackBatch(byte[] body) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(body);
+        if (buffer.remaining() < 4) throw new IOException("Missing replay count");
+
+        int count = buffer.getInt();
+        if (count < 0 || count > MAX_BATCH) throw new IOException("Bad replay count: " + count);
+
+        List<byte[]> replays = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (buffer.remaining() < 4) throw new IOException("Truncated batch");
+            int length = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) throw new IOException("Truncated batch");
+
+            byte[] replay = new byte[length];
+            buffer.get(replay);
+            replays.add(replay);
+        }
+        return replays;
+    }
+
+    private void handleTop(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            Map<String, String> query = parseQuery(exchange);
+            Leaderboard leaderboard = leaderboardFor(exchange, query);
+            if (leaderboard == null) return;
+
+            int limit;
+            try {
+                limit = Math.max(0, Math.min(1000, Integer.parseInt(query.getOrDefault("limit", "10"))));
+            } catch (NumberFormatException e) {
+                send(exchange, 400, "Bad limit");
+                return;
+            }
+
+            StringBuilder reply = new StringBuilder();
+            for (Map.Entry<String, Integer> entry : leaderboard.top(limit)) {
+                reply.append(entry.getKey()).append(':').append(entry.getValue()).append('\n');
+            }
+            send(exchange, 200, reply.toString());
+        }
+    }
+
+    private void handleRank(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            Map<String, String> query = parseQuery(exchange);
+            Leaderboard leaderboard = leaderboardFor(exchange, query);
+            if (leaderboard == null) return;
+
+            String name = query.get("name");
+            Integer best = name == null ? null : leaderboard.getBest(name);
+            if (best == null) {
+                send(exchange, 404, "No score for " + name);
+                return;
+            }
+            send(exchange, 200, leaderboard.rankOf(name, best) + " " + best);
+        }
+    }
+
+    private Leaderboard leaderboardFor(HttpExchange exchange, Map<String, String> query) throws IOException {
+        String mode = query.getOrDefault("mode", "fixed");
+        if (!mode.equals("fixed") && !mode.equals("adaptive")) {
+            send(exchange, 400, "Unknown mode");
+            return null;
+        }
+        try {
+            return getLeaderboard(Difficulty.valueOf(query.getOrDefault("difficulty", "").toUpperCase()),
+                    mode.equals("adaptive"));
+        } catch (IllegalArgumentException e) {
+            send(exchange, 400, "Unknown difficulty");
+            return null;
+        }
+    }
+
+    private static Map<String, String> parseQuery(HttpExchange exchange) {
+        Map<String, String> query = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null) return query;
+
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq <= 0) continue;
+            query.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            exchange.getResponseBody().write(bytes);
+        }
+    }
+
+    // Usage: LeaderboardServer [port]
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        LeaderboardServer server = new LeaderboardServer(port);
+        server.start();
+        System.out.println("Leaderboard server listening on http://localhost:" + server.getPort());
+    }
+}
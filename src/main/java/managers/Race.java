@@ -0,0 +1,111 @@
+package managers;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// A typing race: every racer types the same sentences in the same order against one clock.
+// The course is drawn once up front, so racers never contend for the sentence loader, and each
+// Racer is only written by the thread handling that player's input. The one shared write is a
+// queue entry per completed sentence, which RaceStandings drains to move racers up the table.
+//
+// Races keep their own rules rather than running a GameEngine per racer, whose timers, metrics
+// and replay would cost each of thousands of sessions a scheduled task: there are no lives or
+// points, a wrong line is fixed and resubmitted, one time limit covers the whole course, and
+// places go by sentences completed, then finishing order. Nothing is recorded or saved.
+public class Race {
+    private final String[] course;
+    private final GameClock clock;
+    private final long durationNanos;
+    private final List<Racer> racers = new ArrayList<>();
+    private final Queue<Racer> advances = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger finishers = new AtomicInteger();
+
+    private volatile boolean started;
+    private volatile long startNanos;
+    private RaceStandings standings;
+
+    public Race(SentenceCorpus corpus, long seed, int sentences, int durationSeconds, GameClock clock) {
+        SentenceLoader loader = new SentenceLoader(corpus, new Random(seed));
+        this.course = new String[sentences];
+        for (int i = 0; i < sentences; i++) {
+            course[i] = loader.getRandomSentence();
+        }
+        this.clock = clock;
+        this.durationNanos = TimeUnit.SECONDS.toNanos(durationSeconds);
+    }
+
+    public synchronized Racer join(String name) {
+        if (started) {
+            throw new IllegalStateException("Race already started");
+        }
+        Racer racer = new Racer(this, racers.size(), name);
+        racers.add(racer);
+        return racer;
+    }
+
+    public synchronized void start() {
+        if (started) return;
+        standings = new RaceStandings(new ArrayList<>(racers), course.length, advances);
+        startNanos = clock.nanoTime();
+        started = true;
+    }
+
+    // Over once time runs out or everyone has typed the whole course
+    public boolean isOver() {
+        return started && (elapsedNanos() >= durationNanos || finishers.get() == racers.size());
+    }
+
+    public boolean isStarted() {
+        return started;
+    }
+
+    public long getTimeRemainingMillis() {
+        if (!started) return TimeUnit.NANOSECONDS.toMillis(durationNanos);
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(durationNanos - elapsedNanos()));
+    }
+
+    // Null until the race has started
+    public synchronized RaceStandings getStandings() {
+        return standings;
+    }
+
+    public synchronized List<Racer> getRacers() {
+        return new ArrayList<>(racers);
+    }
+
+    public int getCourseLength() {
+        return course.length;
+    }
+
+    // The index-th sentence of the course, or null past the finish
+    public String getSentence(int index) {
+        return index < course.length ? course[index] : null;
+    }
+
+    public GameClock getClock() {
+        return clock;
+    }
+
+    long elapsedNanos() {
+        return clock.nanoTime() - startNanos;
+    }
+
+    // Race time so far, stopping at the time limit
+    long raceNanos() {
+        return Math.min(elapsedNanos(), durationNanos);
+    }
+
+    boolean isTimeUp() {
+        return elapsedNanos() >= durationNanos;
+    }
+
+    void advanced(Racer racer) {
+        advances.add(racer);
+    }
+
+    void finished() {
+        finishers.incrementAndGet();
+    }
+}
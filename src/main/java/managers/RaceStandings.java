@@ -0,0 +1,80 @@
+package managers;
+
+import java.util.*;
+
+// Racers ordered by sentences completed; racers on the same count share a place, except that
+// finishers are placed in the order they finished. Keystrokes never change the order, and each
+// completed sentence is a constant-time swap, so refresh() costs the number of sentences
+// completed since the last call rather than a sort of the whole field.
+public class RaceStandings {
+    private final Racer[] order;      // Current standings, leader first
+    private final int[] positions;    // Racer id -> index in order
+    private final int[] progress;     // Racer id -> completed sentences applied so far
+    private final int[] groupStart;   // groupStart[p] = racers with more than p sentences = first index with p
+    private final Queue<Racer> advances;
+
+    RaceStandings(List<Racer> racers, int courseLength, Queue<Racer> advances) {
+        this.order = racers.toArray(new Racer[0]);
+        this.positions = new int[order.length];
+        this.progress = new int[order.length];
+        this.groupStart = new int[courseLength + 1];
+        this.advances = advances;
+        for (int i = 0; i < order.length; i++) {
+            positions[order[i].getId()] = i;
+        }
+    }
+
+    // Applies every completed sentence reported since the last refresh; returns how many
+    public synchronized int refresh() {
+        int applied = 0;
+        Racer racer;
+        while ((racer = advances.poll()) != null) {
+            advance(racer);
+            applied++;
+        }
+        return applied;
+    }
+
+    // Swaps the racer with the first one on the same count, which puts it right behind everyone
+    // on one sentence more. That reorders only racers who are tied anyway; the finished group is
+    // never left, so finishers stay in the order they finished.
+    private void advance(Racer racer) {
+        int id = racer.getId();
+        int p = progress[id]++;
+        int from = positions[id];
+        int to = groupStart[p];
+
+        Racer displaced = order[to];
+        order[from] = displaced;
+        positions[displaced.getId()] = from;
+        order[to] = racer;
+        positions[id] = to;
+        groupStart[p]++;
+    }
+
+    public synchronized int size() {
+        return order.length;
+    }
+
+    // 1-based place: the finishing place once finished, otherwise shared with everyone on the same count
+    public synchronized int positionOf(Racer racer) {
+        int p = progress[racer.getId()];
+        if (p == groupStart.length - 1) {
+            return positions[racer.getId()] + 1;
+        }
+        return groupStart[p] + 1;
+    }
+
+    public synchronized Racer get(int index) {
+        return order[index];
+    }
+
+    public synchronized List<Racer> top(int limit) {
+        return new ArrayList<>(Arrays.asList(order).subList(0, Math.min(limit, order.length)));
+    }
+
+    // Sentences completed as of the last refresh, which is what the order reflects
+    public synchronized int progressOf(Racer racer) {
+        return progress[racer.getId()];
+    }
+}
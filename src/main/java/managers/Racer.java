@@ -0,0 +1,105 @@
+package managers;
+
+import java.util.concurrent.TimeUnit;
+
+// One player's progress through a Race. Only the thread handling this player's input may call
+// keyTyped/keyDeleted/submit; the fields are volatile so standings and views can read them
+// from other threads without locking.
+public class Racer {
+    private static final double CHARS_PER_WORD = 5.0;
+    private static final double NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private final Race race;
+    private final int id;
+    private final String name;
+
+    // Single writer, so plain read-modify-write on a volatile is safe
+    private volatile int completed;        // Sentences typed correctly
+    private volatile int completedChars;   // Their total length
+    private volatile int keystrokes;
+    private volatile int errors;
+    private volatile long finishNanos = -1; // Race time of the last sentence, -1 until finished
+
+    Racer(Race race, int id, String name) {
+        this.race = race;
+        this.id = id;
+        this.name = name;
+    }
+
+    public void keyTyped(int position, char typed) {
+        if (!isRacing()) return;
+
+        String sentence = getCurrentSentence();
+        keystrokes++;
+        if (position >= sentence.length() || sentence.charAt(position) != typed) {
+            errors++;
+        }
+    }
+
+    public void keyDeleted(int position) {
+        if (isRacing()) {
+            keystrokes++;
+        }
+    }
+
+    // Returns true if the line matched and the racer moved on; a wrong line is simply retried
+    public boolean submit(String typed) {
+        if (!isRacing()) return false;
+
+        String sentence = getCurrentSentence();
+        if (!typed.trim().equals(sentence)) {
+            return false;
+        }
+
+        completedChars += sentence.length();
+        if (completed + 1 == race.getCourseLength()) {
+            finishNanos = race.elapsedNanos();
+            race.finished();
+        }
+        completed++;
+        race.advanced(this);
+        return true;
+    }
+
+    private boolean isRacing() {
+        return race.isStarted() && !isFinished() && !race.isTimeUp();
+    }
+
+    // Next sentence to type, or null once the racer has finished
+    public String getCurrentSentence() {
+        return race.getSentence(completed);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCompleted() {
+        return completed;
+    }
+
+    public int getKeystrokes() {
+        return keystrokes;
+    }
+
+    public int getErrors() {
+        return errors;
+    }
+
+    // Finishing place is the racer's position in the standings
+    public boolean isFinished() {
+        return completed == race.getCourseLength();
+    }
+
+    // Words per minute over completed sentences, up to the finish or now
+    public double getWpm() {
+        if (!race.isStarted()) return 0;
+        long elapsed = finishNanos >= 0 ? finishNanos : race.raceNanos();
+        if (elapsed <= 0) return 0;
+        return completedChars / CHARS_PER_WORD / (elapsed / NANOS_PER_MINUTE);
+    }
+}
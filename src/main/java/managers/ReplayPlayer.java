@@ -0,0 +1,249 @@
+package managers;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.Random;
+
+// Re-drives a GameEngine from a replay file on a VirtualClock. Sentences come from the same
+// seeded Random and every input event is applied at its recorded time, so the session plays
+// out exactly as it did; recorded sentences and the final score are checked along the way.
+public class ReplayPlayer implements GameEngine.Listener, Closeable {
+    private final ReplayReader reader;
+    private final VirtualClock clock = new VirtualClock();
+    private final Player player;
+    private final GameEngine engine;
+    private final GameEngine.Listener view; // Optional, e.g. the GamePanel showing the replay
+
+    private final StringBuilder input = new StringBuilder(); // What the input field showed
+    private int inputVersion;
+    private boolean pending;     // reader holds an event that isn't due yet
+    private boolean endOfFile;
+    private boolean finished;
+    private int mismatches;
+    private String firstMismatch;
+    private int recordedScore = -1;
+
+    public ReplayPlayer(Path path, GameEngine.Listener view) throws IOException {
+        this(new ReplayReader(path), view);
+    }
+
+    public ReplayPlayer(ReplayReader reader, GameEngine.Listener view) throws IOException {
+        this(reader, view, true);
+    }
+
+    // otherCorpora allows a corpus other than the difficulty's own, loaded by the name in the
+    // replay; only for local files, since that name is whatever the file says
+    ReplayPlayer(ReplayReader reader, GameEngine.Listener view, boolean otherCorpora) throws IOException {
+        this.reader = reader;
+        this.view = view;
+        this.player = new Player(reader.getPlayerName());
+        try {
+            Difficulty difficulty = reader.getDifficulty();
+            boolean ownCorpus = reader.getCorpusName().equals(difficulty.getSentenceFile());
+            if (!ownCorpus && !otherCorpora) {
+                throw new IOException("replay uses " + reader.getCorpusName() + ", not the "
+                        + difficulty + " sentences");
+            }
+            SentenceCorpus corpus = ownCorpus ? CorpusRegistry.get(difficulty) : SentenceCorpus.load(reader.getCorpusName());
+            SentenceLoader loader = new SentenceLoader(corpus, new Random(reader.getSeed()));
+            this.engine = new GameEngine(player, difficulty, loader, clock, clock, this);
+            if (reader.isAdaptive()) {
+                engine.setAdaptive(AdaptiveSentencePicker.forAllDifficulties(new Random(reader.getSeed())),
+                        reader.getAdaptiveSkill());
+            }
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    // Applies every event recorded up to nanos after the start of the session
+    public void advanceTo(long nanos) throws IOException {
+        while (!endOfFile) {
+            if (!pending) {
+                if (reader.next() < 0) {
+                    endOfFile = true;
+                    break;
+                }
+                pending = true;
+            }
+            if (reader.getNanos() > nanos) break;
+
+            clock.advanceTo(reader.getNanos());
+            apply();
+            pending = false;
+        }
+        clock.advanceTo(nanos);
+    }
+
+    // Plays the rest of the replay as fast as possible
+    public void runToEnd() throws IOException {
+        advanceTo(Long.MAX_VALUE / 2);
+    }
+
+    private void apply() {
+        switch (reader.getType()) {
+            case ReplayWriter.START:
+                engine.start();
+                break;
+            case ReplayWriter.SENTENCE:
+                String sentence = engine.getCurrentSentence();
+                if (sentence == null || sentence.hashCode() != reader.getSentenceHash()) {
+                    mismatch("sentence differs from the recording");
+                }
+                break;
+            case ReplayWriter.TYPED:
+                if (reader.getPosition() <= input.length()) {
+                    input.insert(reader.getPosition(), reader.getTyped());
+                    inputVersion++;
+                }
+                engine.keyTyped(reader.getPosition(), reader.getTyped());
+                break;
+            case ReplayWriter.DELETED:
+                if (reader.getPosition() < input.length()) {
+                    input.deleteCharAt(reader.getPosition());
+                    inputVersion++;
+                }
+                engine.keyDeleted(reader.getPosition());
+                break;
+            case ReplayWriter.SUBMIT:
+                // Whatever was submitted must have been typed key by key
+                if (engine.isActive() && !reader.getText().contentEquals(input)) {
+                    mismatch("submitted text was not typed");
+                }
+                engine.submit(reader.getText());
+                break;
+            case ReplayWriter.TIME_UP:
+                // The deadline has passed here too; our timer just hasn't ticked yet
+                if (engine.isActive()) {
+                    engine.onTimeUp();
+                }
+                break;
+            case ReplayWriter.GAME_OVER:
+                recordedScore = reader.getFinalScore();
+                if (recordedScore != player.getScore()) {
+                    mismatch("recorded score " + recordedScore + ", replayed " + player.getScore());
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void mismatch(String message) {
+        mismatches++;
+        if (firstMismatch == null) {
+            firstMismatch = message;
+        }
+        System.err.println("Replay mismatch at " + reader.getNanos() / 1_000_000 + " ms: " + message);
+    }
+
+    private void clearInput() {
+        if (input.length() > 0) {
+            input.setLength(0);
+            inputVersion++;
+        }
+    }
+
+    // GameEngine.Listener implementation: keep the input in step, then pass on to the view
+    @Override
+    public void onSentence(String sentence) {
+        clearInput();
+        if (view != null) view.onSentence(sentence);
+    }
+
+    @Override
+    public void onCorrect(int points, int bonusSeconds) {
+        if (view != null) view.onCorrect(points, bonusSeconds);
+    }
+
+    @Override
+    public void onWrong() {
+        clearInput();
+        if (view != null) view.onWrong();
+    }
+
+    @Override
+    public void onTimeUpdate(int timeRemaining) {
+        if (view != null) view.onTimeUpdate(timeRemaining);
+    }
+
+    @Override
+    public void onGameOver(boolean timeUp) {
+        finished = true;
+        if (view != null) view.onGameOver(timeUp);
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public boolean isEndOfFile() {
+        return endOfFile;
+    }
+
+    public String getInput() {
+        return input.toString();
+    }
+
+    // Changes whenever the input text does, so a view can skip unchanged frames
+    public int getInputVersion() {
+        return inputVersion;
+    }
+
+    public GameEngine getEngine() {
+        return engine;
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    public Difficulty getDifficulty() {
+        return reader.getDifficulty();
+    }
+
+    public long getStartMillis() {
+        return reader.getStartMillis();
+    }
+
+    public int getMismatches() {
+        return mismatches;
+    }
+
+    // What diverged first, or null if the replay matched so far
+    public String getFirstMismatch() {
+        return firstMismatch;
+    }
+
+    // Final score stored in the replay, or -1 if the recording was cut short
+    public int getRecordedScore() {
+        return recordedScore;
+    }
+
+    @Override
+    public void close() throws IOException {
+        engine.stop();
+        reader.close();
+    }
+
+    // Audits replays without a UI: java -cp <classes> managers.ReplayPlayer <file.replay>...
+    public static void main(String[] args) throws IOException {
+        boolean allMatch = true;
+        for (String file : args) {
+            try (ReplayPlayer replay = new ReplayPlayer(Paths.get(file), null)) {
+                long start = System.nanoTime();
+                replay.runToEnd();
+                long elapsedMicros = (System.nanoTime() - start) / 1000;
+
+                boolean match = replay.getMismatches() == 0 && replay.getRecordedScore() >= 0;
+                allMatch &= match;
+                System.out.printf("%s: %s on %s, recorded %d, replayed %d in %d us - %s%n",
+                        file, replay.getPlayer().getName(), replay.getDifficulty(),
+                        replay.getRecordedScore(), replay.getPlayer().getScore(), elapsedMicros,
+                        match ? "OK" : "MISMATCH");
+            }
+        }
+        System.exit(allMatch ? 0 : 1);
+    }
+}
@@ -0,0 +1,181 @@
+package managers;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+
+// Reads a replay written by ReplayWriter one event at a time. A file cut short (e.g. the
+// game window was closed mid-session) simply ends at the last complete event.
+public class ReplayReader implements Closeable {
+    private static final int MAX_STRING_BYTES = 1 << 16;
+
+    private final DataInputStream in;
+    private final Difficulty difficulty;
+    private final long seed;
+    private final String corpusName;
+    private final String playerName;
+    private final long startMillis;
+    private final SkillModel adaptiveSkill; // Skill at the start of an adaptive game, else null
+
+    // Current event
+    private int type;
+    private long nanos;     // Since the START event
+    private int position;
+    private char typed;
+    private long value;     // Sentence hash or final score
+    private String text;
+
+    public ReplayReader(Path path) throws IOException {
+        this(Files.newInputStream(path), path.toString());
+    }
+
+    // E.g. a replay uploaded to the leaderboard server
+    public ReplayReader(InputStream input, String name) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(input));
+        try {
+            if (in.readInt() != ReplayWriter.MAGIC) {
+                throw new IOException("Not a replay file: " + name);
+            }
+            int version = in.readUnsignedByte();
+            if (version < 1 || version > ReplayWriter.VERSION) {
+                throw new IOException("Unsupported replay version " + version + ": " + name);
+            }
+            int ordinal = (int) readVarint();
+            if (ordinal < 0 || ordinal >= Difficulty.values().length) {
+                throw new IOException("Unknown difficulty in replay: " + name);
+            }
+            this.difficulty = Difficulty.values()[ordinal];
+            this.seed = in.readLong();
+            this.corpusName = readString();
+            this.playerName = readString();
+            this.startMillis = readVarint();
+            long flags = version >= 2 ? readVarint() : 0;
+            if ((flags & ReplayWriter.FLAG_ADAPTIVE) != 0) {
+                this.adaptiveSkill = new SkillModel(in.readDouble(), in.readDouble(), (int) readVarint());
+            } else {
+                this.adaptiveSkill = null;
+            }
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    // Moves to the next event and returns its type, or -1 at the end of the replay
+    public int next() throws IOException {
+        try {
+            int nextType = in.read();
+            if (nextType < 0) return type = -1;
+
+            nanos += readVarint();
+            switch (nextType) {
+                case ReplayWriter.SENTENCE:
+                    value = readVarint();
+                    break;
+                case ReplayWriter.TYPED:
+                    position = (int) readVarint();
+                    typed = (char) readVarint();
+                    break;
+                case ReplayWriter.DELETED:
+                    position = (int) readVarint();
+                    break;
+                case ReplayWriter.SUBMIT:
+                    text = readString();
+                    break;
+                case ReplayWriter.GAME_OVER:
+                    value = readVarint();
+                    break;
+                case ReplayWriter.START:
+                case ReplayWriter.TIME_UP:
+                    break;
+                default:
+                    throw new IOException("Unknown replay event " + nextType);
+            }
+            return type = nextType;
+        } catch (EOFException e) {
+            return type = -1;
+        }
+    }
+
+    public int getType() {
+        return type;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public char getTyped() {
+        return typed;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public int getSentenceHash() {
+        return (int) ((value >>> 1) ^ -(value & 1));
+    }
+
+    public int getFinalScore() {
+        return (int) value;
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public String getCorpusName() {
+        return corpusName;
+    }
+
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    public boolean isAdaptive() {
+        return adaptiveSkill != null;
+    }
+
+    // A fresh copy of the skill the adaptive game started from, or null for a fixed game
+    public SkillModel getAdaptiveSkill() {
+        return adaptiveSkill == null ? null : adaptiveSkill.copy();
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private long readVarint() throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return result;
+        }
+        throw new IOException("Malformed varint in replay");
+    }
+
+    private String readString() throws IOException {
+        long length = readVarint();
+        if (length > MAX_STRING_BYTES) {
+            throw new IOException("Replay string too long: " + length + " bytes");
+        }
+        byte[] bytes = new byte[(int) length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
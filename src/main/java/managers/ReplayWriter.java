@@ -0,0 +1,185 @@
+package managers;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+
+// Streams a game session to a replay file as it is played. Events are encoded into a
+// reusable byte buffer (no allocation per key) and written out a block at a time.
+//
+// Layout: [i32 magic][u8 version][varint difficulty][i64 seed][string corpus][string player]
+//         [varint start epoch millis][varint flags], then, for an adaptive game, the starting skill as
+//         [f64 rate][f64 accuracy][varint rounds]; then events of [u8 type][varint nanos since previous event][payload].
+// Strings are [varint UTF-8 length][bytes]; see ReplayReader for the payload of each event type.
+public class ReplayWriter implements Closeable {
+    public static final int MAGIC = 0x5452504C; // "TRPL"
+    public static final int VERSION = 2;    // 2 added the flags and adaptive skill
+    public static final int FLAG_ADAPTIVE = 1;
+
+    public static final int START = 1;
+    public static final int SENTENCE = 2;   // varint zigzag sentence hash, to check playback against
+    public static final int TYPED = 3;      // varint position, varint char
+    public static final int DELETED = 4;    // varint position
+    public static final int SUBMIT = 5;     // string as submitted
+    public static final int TIME_UP = 6;
+    public static final int GAME_OVER = 7;  // varint final score
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_EVENT_BYTES = 32; // Upper bound for every event without a string
+
+    private final Path path;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private long lastNanos;
+    private boolean failed;
+
+    public ReplayWriter(Path path, Difficulty difficulty, long seed, String corpusName,
+                        String playerName, long startMillis) throws IOException {
+        this(path, difficulty, seed, corpusName, playerName, startMillis, null);
+    }
+
+    // adaptiveSkill is the skill model at the start of an adaptive game, null for a fixed one
+    public ReplayWriter(Path path, Difficulty difficulty, long seed, String corpusName,
+                        String playerName, long startMillis, SkillModel adaptiveSkill) throws IOException {
+        this.path = path;
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+        try {
+            buffer.putInt(MAGIC);
+            buffer.put((byte) VERSION);
+            putVarint(difficulty.ordinal());
+            buffer.putLong(seed);
+            putString(corpusName);
+            putString(playerName);
+            putVarint(startMillis);
+            putVarint(adaptiveSkill != null ? FLAG_ADAPTIVE : 0);
+            if (adaptiveSkill != null) {
+                buffer.putDouble(adaptiveSkill.getRate());
+                buffer.putDouble(adaptiveSkill.getAccuracy());
+                putVarint(adaptiveSkill.getRounds());
+            }
+        } catch (RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        flush();
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public void start(long nanos) {
+        lastNanos = nanos;
+        event(START, nanos);
+    }
+
+    public void sentence(long nanos, String sentence) {
+        event(SENTENCE, nanos);
+        putVarint(zigzag(sentence.hashCode()));
+    }
+
+    public void typed(long nanos, int position, char c) {
+        event(TYPED, nanos);
+        putVarint(position);
+        putVarint(c);
+    }
+
+    public void deleted(long nanos, int position) {
+        event(DELETED, nanos);
+        putVarint(position);
+    }
+
+    public void submitted(long nanos, String text) {
+        event(SUBMIT, nanos);
+        putString(text);
+    }
+
+    public void timeUp(long nanos) {
+        event(TIME_UP, nanos);
+    }
+
+    public void gameOver(long nanos, int score) {
+        event(GAME_OVER, nanos);
+        putVarint(score);
+        flush();
+    }
+
+    @Override
+    public void close() {
+        if (!channel.isOpen()) return;
+        flush();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Error closing replay " + path + ": " + e.getMessage());
+        }
+    }
+
+    private void event(int type, long nanos) {
+        if (buffer.remaining() < MAX_EVENT_BYTES) {
+            flush();
+        }
+        writeHeader(type, nanos);
+    }
+
+    private void writeHeader(int type, long nanos) {
+        buffer.put((byte) type);
+        putVarint(Math.max(0, nanos - lastNanos));
+        lastNanos = Math.max(lastNanos, nanos);
+    }
+
+    private void flush() {
+        buffer.flip();
+        write(buffer);
+        buffer.clear();
+    }
+
+    private void write(ByteBuffer bytes) {
+        // A failing disk shouldn't interrupt the game: give up on the replay after reporting once
+        if (failed) return;
+        try {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        } catch (IOException e) {
+            failed = true;
+            System.err.println("Error writing replay " + path + ": " + e.getMessage());
+        }
+    }
+
+    // Strings can be any length; the buffer is left with room for at least one more event
+    private void putString(String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        if (buffer.remaining() < bytes.length + MAX_EVENT_BYTES) {
+            flush();
+        }
+        putVarint(bytes.length);
+        if (buffer.remaining() < bytes.length + MAX_EVENT_BYTES) {
+            flush();
+            write(ByteBuffer.wrap(bytes)); // Longer than the whole buffer
+        } else {
+            buffer.put(bytes);
+        }
+    }
+
+    // Unsigned LEB128: 7 bits per byte, high bit set on all but the last
+    private void putVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static long zigzag(int value) {
+        return ((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL;
+    }
+}
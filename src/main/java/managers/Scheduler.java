@@ -0,0 +1,12 @@
+package managers;
+
+public interface Scheduler {
+    // Runs task once after the delay; replaces any pending task with the same key
+    void schedule(String key, long delayMillis, Runnable task);
+
+    // Runs task every period until cancelled; replaces any pending task with the same key
+    void scheduleRepeating(String key, long periodMillis, Runnable task);
+
+    // Returns true if a pending task was removed
+    boolean cancel(String key);
+}
@@ -0,0 +1,345 @@
+package managers;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Append-only record of every game played on one difficulty, stored column by column.
+// Layout under <root>/<difficulty>/:
+//   players.dict               [u16 name length][name UTF-8] per player; the player id is the entry's position
+//   seg-NNNNNN/time.col        i64 epoch millis, never decreasing, so time ranges are a binary search
+//   seg-NNNNNN/score.col       i32
+//   seg-NNNNNN/rounds.col      i32
+//   seg-NNNNNN/player.col      i32 player id
+// A query reads only the columns it needs, and only the rows inside its time range.
+// Game instances in other processes may append too: writers hold a lock on history.lock,
+// and every call first picks up rows and players the others added.
+public class ScoreHistory {
+    public static final int SEGMENT_ROWS = 1 << 16;
+
+    private static final String DICTIONARY = "players.dict";
+    private static final String TIME = "time.col";
+    private static final String SCORE = "score.col";
+    private static final String ROUNDS = "rounds.col";
+    private static final String PLAYER = "player.col";
+    private static final String LOCK = "history.lock";
+    private static final int MAX_NAME_BYTES = 0xFFFF;
+
+    // One instance per directory, so every writer shares the same dictionary and segment state
+    private static final Map<Path, ScoreHistory> histories = new HashMap<>();
+
+    private final Path dir;
+    private final Difficulty difficulty;
+    private final boolean forceWrites;
+
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<Path> segments = new ArrayList<>();
+    private long dictionaryBytes; // Dictionary bytes already read into names
+    private int activeRows;      // Rows in the last segment
+    private long lastTimestamp;
+
+    private static final class Hit {
+        final int score;
+        final int segment;
+        final int row;
+
+        Hit(int score, int segment, int row) {
+            this.score = score;
+            this.segment = segment;
+            this.row = row;
+        }
+    }
+
+    // Worst hit first: lower score, then the later game loses a tie
+    private static final Comparator<Hit> WORST_FIRST = Comparator.<Hit>comparingInt(h -> h.score)
+            .thenComparing(Comparator.<Hit>comparingInt(h -> h.segment).thenComparingInt(h -> h.row).reversed());
+
+    private ScoreHistory(Path dir, Difficulty difficulty, boolean forceWrites) throws IOException {
+        this.dir = dir;
+        this.difficulty = difficulty;
+        this.forceWrites = forceWrites;
+        load();
+    }
+
+    public static ScoreHistory open(Path root, Difficulty difficulty) throws IOException {
+        return open(root, difficulty, true);
+    }
+
+    public static ScoreHistory open(Path root, Difficulty difficulty, boolean forceWrites) throws IOException {
+        Path dir = root.resolve(difficulty.name().toLowerCase()).toAbsolutePath().normalize();
+        synchronized (histories) {
+            ScoreHistory history = histories.get(dir);
+            if (history == null) {
+                history = new ScoreHistory(dir, difficulty, forceWrites);
+                histories.put(dir, history);
+            }
+            return history;
+        }
+    }
+
+    private void load() throws IOException {
+        Files.createDirectories(dir);
+        FileLocks.withLock(dir.resolve(LOCK), lock -> {
+            refresh(true);
+            return null;
+        });
+    }
+
+    // Catches up with what other writers appended. With repair set (only while holding the
+    // lock, when nobody can be mid-append) torn tails left by a crashed writer are cut off.
+    private void refresh(boolean repair) throws IOException {
+        readDictionary(repair);
+
+        try (Stream<Path> files = Files.list(dir)) {
+            List<Path> found = files.filter(p -> p.getFileName().toString().startsWith("seg-"))
+                    .sorted()
+                    .collect(Collectors.toList());
+            segments.addAll(found.subList(segments.size(), found.size()));
+        }
+
+        if (!segments.isEmpty()) {
+            // A crash mid-append can leave the columns of the last segment at different lengths
+            Path active = segments.get(segments.size() - 1);
+            activeRows = rowCount(active);
+            if (repair) {
+                truncate(active.resolve(TIME), activeRows * 8L);
+                truncate(active.resolve(SCORE), activeRows * 4L);
+                truncate(active.resolve(ROUNDS), activeRows * 4L);
+                truncate(active.resolve(PLAYER), activeRows * 4L);
+            }
+            if (activeRows > 0) {
+                lastTimestamp = Math.max(lastTimestamp,
+                        read(active.resolve(TIME), (activeRows - 1) * 8L, 8).getLong());
+            }
+        }
+    }
+
+    private void readDictionary(boolean repair) throws IOException {
+        Path path = dir.resolve(DICTIONARY);
+        long size = size(path);
+        if (size <= dictionaryBytes) return;
+
+        ByteBuffer data = read(path, dictionaryBytes, (int) (size - dictionaryBytes));
+        int validEnd = 0;
+        while (data.remaining() >= 2) {
+            int length = Short.toUnsignedInt(data.getShort());
+            if (data.remaining() < length) break;
+
+            String name = new String(data.array(), data.position(), length, StandardCharsets.UTF_8);
+            data.position(data.position() + length);
+            ids.put(name, names.size());
+            names.add(name);
+            validEnd = data.position();
+        }
+        dictionaryBytes += validEnd;
+
+        if (repair && dictionaryBytes < size) {
+            System.err.println("Discarding torn player dictionary tail in " + path);
+            truncate(path, dictionaryBytes);
+        }
+    }
+
+    public synchronized void append(String name, int score, int rounds, long timestampMillis) throws IOException {
+        FileLocks.withLock(dir.resolve(LOCK), lock -> {
+            refresh(true);
+            appendRow(name, score, rounds, timestampMillis);
+            return null;
+        });
+    }
+
+    private void appendRow(String name, int score, int rounds, long timestampMillis) throws IOException {
+        int player = playerId(name);
+
+        if (segments.isEmpty() || activeRows == SEGMENT_ROWS) {
+            Path segment = dir.resolve(String.format("seg-%06d", segments.size()));
+            Files.createDirectories(segment);
+            segments.add(segment);
+            activeRows = 0;
+        }
+
+        // Keep the time column sorted even if the wall clock steps backwards
+        long timestamp = Math.max(timestampMillis, lastTimestamp);
+
+        Path segment = segments.get(segments.size() - 1);
+        appendColumn(segment.resolve(SCORE), ByteBuffer.allocate(4).putInt(0, score));
+        appendColumn(segment.resolve(ROUNDS), ByteBuffer.allocate(4).putInt(0, rounds));
+        appendColumn(segment.resolve(PLAYER), ByteBuffer.allocate(4).putInt(0, player));
+        appendColumn(segment.resolve(TIME), ByteBuffer.allocate(8).putLong(0, timestamp));
+
+        activeRows++;
+        lastTimestamp = timestamp;
+    }
+
+    private int playerId(String name) throws IOException {
+        Integer id = ids.get(name);
+        if (id != null) return id;
+
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_NAME_BYTES) {
+            throw new IOException("Player name too long for history: " + name);
+        }
+        ByteBuffer entry = ByteBuffer.allocate(2 + bytes.length);
+        entry.putShort((short) bytes.length).put(bytes).flip();
+        appendColumn(dir.resolve(DICTIONARY), entry);
+        dictionaryBytes += entry.limit();
+
+        ids.put(name, names.size());
+        names.add(name);
+        return names.size() - 1;
+    }
+
+    // Best games with fromMillis <= time < toMillis, highest score first (earlier game wins ties)
+    public synchronized List<GameRecord> top(int limit, long fromMillis, long toMillis) throws IOException {
+        if (limit <= 0) return new ArrayList<>();
+        refresh(false);
+
+        PriorityQueue<Hit> best = new PriorityQueue<>(Math.min(limit, 1024) + 1, WORST_FIRST);
+        for (int s = 0; s < segments.size(); s++) {
+            Path segment = segments.get(s);
+            int rows = rowCount(segment);
+            if (rows == 0) continue;
+
+            int from;
+            int to;
+            try (FileChannel channel = FileChannel.open(segment.resolve(TIME), StandardOpenOption.READ)) {
+                LongBuffer times = channel.map(FileChannel.MapMode.READ_ONLY, 0, rows * 8L).asLongBuffer();
+                if (times.get(0) >= toMillis || times.get(rows - 1) < fromMillis) continue;
+                from = lowerBound(times, rows, fromMillis);
+                to = lowerBound(times, rows, toMillis);
+            }
+            if (from >= to) continue;
+
+            IntBuffer scores = read(segment.resolve(SCORE), from * 4L, (to - from) * 4).asIntBuffer();
+            for (int row = from; row < to; row++) {
+                Hit hit = new Hit(scores.get(row - from), s, row);
+                if (best.size() < limit) {
+                    best.add(hit);
+                } else if (WORST_FIRST.compare(hit, best.peek()) > 0) {
+                    best.poll();
+                    best.add(hit);
+                }
+            }
+        }
+
+        // Only the winning rows have their remaining columns read
+        List<GameRecord> result = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            Hit hit = best.poll();
+            Path segment = segments.get(hit.segment);
+            result.add(new GameRecord(
+                    names.get(read(segment.resolve(PLAYER), hit.row * 4L, 4).getInt()),
+                    hit.score,
+                    read(segment.resolve(ROUNDS), hit.row * 4L, 4).getInt(),
+                    difficulty,
+                    read(segment.resolve(TIME), hit.row * 8L, 8).getLong()));
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    // Every game the player has played on this difficulty, oldest first
+    public synchronized List<GameRecord> historyOf(String name) throws IOException {
+        refresh(false);
+        List<GameRecord> games = new ArrayList<>();
+        Integer id = ids.get(name);
+        if (id == null) return games;
+
+        for (Path segment : segments) {
+            int rows = rowCount(segment);
+            if (rows == 0) continue;
+
+            IntBuffer players = read(segment.resolve(PLAYER), 0, rows * 4).asIntBuffer();
+            IntBuffer scores = null;
+            IntBuffer rounds = null;
+            LongBuffer times = null;
+            for (int row = 0; row < rows; row++) {
+                if (players.get(row) != id) continue;
+
+                if (scores == null) {
+                    scores = read(segment.resolve(SCORE), 0, rows * 4).asIntBuffer();
+                    rounds = read(segment.resolve(ROUNDS), 0, rows * 4).asIntBuffer();
+                    times = read(segment.resolve(TIME), 0, rows * 8).asLongBuffer();
+                }
+                games.add(new GameRecord(name, scores.get(row), rounds.get(row), difficulty, times.get(row)));
+            }
+        }
+        return games;
+    }
+
+    public synchronized int size() throws IOException {
+        refresh(false);
+        return segments.isEmpty() ? 0 : (segments.size() - 1) * SEGMENT_ROWS + activeRows;
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    // First row whose time is >= millis
+    private static int lowerBound(LongBuffer times, int rows, long millis) {
+        int low = 0;
+        int high = rows;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (times.get(mid) < millis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Complete rows in a segment: the shortest column decides
+    private static int rowCount(Path segment) throws IOException {
+        long rows = size(segment.resolve(TIME)) / 8;
+        rows = Math.min(rows, size(segment.resolve(SCORE)) / 4);
+        rows = Math.min(rows, size(segment.resolve(ROUNDS)) / 4);
+        rows = Math.min(rows, size(segment.resolve(PLAYER)) / 4);
+        return (int) rows;
+    }
+
+    private static long size(Path path) throws IOException {
+        return Files.exists(path) ? Files.size(path) : 0;
+    }
+
+    private void appendColumn(Path path, ByteBuffer bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            if (forceWrites) {
+                channel.force(false);
+            }
+        }
+    }
+
+    private static ByteBuffer read(Path path, long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) {
+                    throw new EOFException("Unexpected end of " + path);
+                }
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static void truncate(Path path, long length) throws IOException {
+        if (!Files.exists(path) || Files.size(path) <= length) return;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(length);
+        }
+    }
+}
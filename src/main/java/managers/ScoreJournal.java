@@ -0,0 +1,145 @@
+package managers;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+public class ScoreJournal {
+    // Record layout: [u16 name length][name UTF-8][i32 score][i32 CRC32 of the preceding bytes]
+    private static final int HEADER_BYTES = 2;
+    private static final int TRAILER_BYTES = 8;
+    private static final int MAX_NAME_BYTES = 0xFFFF;
+
+    private final Path path;
+    private final boolean forceWrites;
+
+    public ScoreJournal(Path path, boolean forceWrites) {
+        this.path = path;
+        this.forceWrites = forceWrites;
+    }
+
+    // Appends one record and returns the journal size afterwards
+    public long append(String name, int score) throws IOException {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        if (nameBytes.length > MAX_NAME_BYTES) {
+            throw new IOException("Player name too long for journal: " + name);
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + nameBytes.length + TRAILER_BYTES);
+        record.putShort((short) nameBytes.length);
+        record.put(nameBytes);
+        record.putInt(score);
+        record.putInt(checksum(record.array(), record.position()));
+        record.flip();
+
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            if (forceWrites) {
+                channel.force(false);
+            }
+            return channel.size();
+        }
+    }
+
+    // Merges every intact record into scores, keeping the best score per player.
+    // A torn or corrupt tail (e.g. from a crash mid-write) is cut off, so only call this
+    // while holding the lock that writers take.
+    public void replay(Map<String, Integer> scores) throws IOException {
+        if (!Files.exists(path)) return;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long validEnd = readRecords(channel, 0, scores);
+            if (validEnd < channel.size()) {
+                System.err.println("Discarding corrupt journal tail in " + path);
+                channel.truncate(validEnd);
+            }
+        }
+    }
+
+    // Merges the intact records from offset onwards and returns the offset after the last one.
+    // Read-only: a record another writer is still appending is just left for the next call.
+    public long replayFrom(Map<String, Integer> scores, long offset) throws IOException {
+        if (!Files.exists(path)) return 0;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return readRecords(channel, Math.min(offset, channel.size()), scores);
+        }
+    }
+
+    // Cuts off whatever follows validEnd (as returned by replayFrom), such as a record torn by
+    // a crash, so the next append doesn't land behind garbage that replay would stop at.
+    // Only call this while holding the lock that writers take.
+    public void truncateTo(long validEnd) throws IOException {
+        if (!Files.exists(path)) return;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            if (channel.size() > validEnd) {
+                System.err.println("Discarding corrupt journal tail in " + path);
+                channel.truncate(validEnd);
+                if (forceWrites) {
+                    channel.force(true);
+                }
+            }
+        }
+    }
+
+    private static long readRecords(FileChannel channel, long offset, Map<String, Integer> scores)
+            throws IOException {
+        ByteBuffer data = ByteBuffer.allocate((int) (channel.size() - offset));
+        while (data.hasRemaining() && channel.read(data, offset + data.position()) >= 0) {
+            // Keep reading until the rest of the journal is in memory
+        }
+        data.flip();
+
+        int validEnd = 0;
+        while (data.remaining() >= HEADER_BYTES) {
+            int start = data.position();
+            int nameLength = Short.toUnsignedInt(data.getShort());
+            if (data.remaining() < nameLength + TRAILER_BYTES) break;
+
+            byte[] nameBytes = new byte[nameLength];
+            data.get(nameBytes);
+            int score = data.getInt();
+            int expected = checksum(data.array(), start, data.position() - start);
+            if (data.getInt() != expected) break;
+
+            scores.merge(new String(nameBytes, StandardCharsets.UTF_8), score, Math::max);
+            validEnd = data.position();
+        }
+        return offset + validEnd;
+    }
+
+    public void truncate() throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.truncate(0);
+            if (forceWrites) {
+                channel.force(true);
+            }
+        }
+    }
+
+    public long size() {
+        try {
+            return Files.exists(path) ? Files.size(path) : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static int checksum(byte[] bytes, int length) {
+        return checksum(bytes, 0, length);
+    }
+
+    private static int checksum(byte[] bytes, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,140 @@
+package managers;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+// Reads and writes high-score snapshots, in the binary format or as name:score text
+public class ScoreStore {
+    // Layout: [i32 magic][u16 version][u16 reserved][i32 count]
+    //         count x ([u16 name length][name UTF-8][i32 score]) [i32 CRC32 of everything before]
+    private static final int MAGIC = 0x48534352; // "HSCR"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 12;
+    private static final int MAX_NAME_BYTES = 0xFFFF;
+
+    // The file is there but isn't a valid snapshot: bad magic, failed checksum or truncated
+    public static class CorruptFileException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public CorruptFileException(String message) {
+            super(message);
+        }
+    }
+
+    private ScoreStore() {
+    }
+
+    // Whole file in one read, then a single pass over the buffer
+    public static Map<String, Integer> readBinary(Path path) throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+        if (bytes.length < HEADER_BYTES + 4 || buffer.getInt() != MAGIC) {
+            throw new CorruptFileException("Not a high score file: " + path);
+        }
+        int version = Short.toUnsignedInt(buffer.getShort());
+        if (version != VERSION) {
+            throw new IOException("Unsupported high score file version " + version + ": " + path);
+        }
+        buffer.getShort(); // Reserved
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - 4);
+        if ((int) crc.getValue() != buffer.getInt(bytes.length - 4)) {
+            throw new CorruptFileException("Corrupt high score file: " + path);
+        }
+
+        int count = buffer.getInt();
+        if (count < 0 || count > (bytes.length - HEADER_BYTES - 4) / 6) {
+            throw new CorruptFileException("Bad score count in " + path);
+        }
+        Map<String, Integer> scores = new HashMap<>(Math.max(16, count * 4 / 3 + 1));
+        try {
+            for (int i = 0; i < count; i++) {
+                int nameLength = Short.toUnsignedInt(buffer.getShort());
+                String name = new String(bytes, buffer.position(), nameLength, StandardCharsets.UTF_8);
+                buffer.position(buffer.position() + nameLength);
+                scores.put(name, buffer.getInt());
+            }
+        } catch (RuntimeException e) {
+            throw new CorruptFileException("Truncated high score file: " + path);
+        }
+        return scores;
+    }
+
+    // Writes to a temp file and atomically swaps it in, so readers never see half a file
+    public static void writeBinary(Path path, Map<String, Integer> scores) throws IOException {
+        byte[][] names = new byte[scores.size()][];
+        int[] values = new int[scores.size()];
+        int size = HEADER_BYTES + 4;
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : scores.entrySet()) {
+            names[i] = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            if (names[i].length > MAX_NAME_BYTES) {
+                throw new IOException("Player name too long: " + entry.getKey());
+            }
+            values[i] = entry.getValue();
+            size += 2 + names[i].length + 4;
+            i++;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC);
+        buffer.putShort((short) VERSION);
+        buffer.putShort((short) 0);
+        buffer.putInt(names.length);
+        for (int j = 0; j < names.length; j++) {
+            buffer.putShort((short) names[j].length);
+            buffer.put(names[j]);
+            buffer.putInt(values[j]);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+
+        Path temp = Paths.get(path + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Legacy/export format: one name:score per line. The score follows the last ':',
+    // so names containing ':' survive a round trip.
+    public static Map<String, Integer> readText(Path path) throws IOException {
+        Map<String, Integer> scores = new HashMap<>();
+        try (BufferedReader br = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                int colon = line.lastIndexOf(':');
+                if (colon <= 0) continue;
+                try {
+                    int score = Integer.parseInt(line, colon + 1, line.length(), 10);
+                    scores.merge(line.substring(0, colon), score, Math::max);
+                } catch (NumberFormatException e) {
+                    System.err.println("Invalid score format: " + line);
+                }
+            }
+        }
+        return scores;
+    }
+
+    public static void writeText(Path path, Map<String, Integer> scores) throws IOException {
+        try (PrintWriter pw = new PrintWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8))) {
+            for (Map.Entry<String, Integer> entry : scores.entrySet()) {
+                pw.println(entry.getKey() + ":" + entry.getValue());
+            }
+        }
+    }
+}
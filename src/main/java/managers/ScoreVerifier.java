@@ -0,0 +1,131 @@
+package managers;
+
+import java.io.*;
+
+// Decides whether a submitted replay is a believable game: it must play back to the score it
+// claims, every submitted line must have been typed, and the typing must look human.
+public class ScoreVerifier {
+    public static final double MAX_NET_WPM = 250;
+    public static final long MIN_HUMAN_KEY_INTERVAL_NANOS = 15_000_000;
+    public static final double MAX_FAST_KEY_FRACTION = 0.25; // Rollover makes a few fast pairs normal
+    private static final int MIN_KEYS_FOR_TIMING_CHECK = 20;
+
+    public static final class Verdict {
+        private final boolean accepted;
+        private final String reason;
+        private final String playerName;
+        private final Difficulty difficulty;
+        private final boolean adaptive;
+        private final int score;
+        private final long startMillis;
+        private final long seed;
+
+        private Verdict(boolean accepted, String reason, ReplayPlayer replay, long seed) {
+            this.accepted = accepted;
+            this.reason = reason;
+            this.playerName = replay == null ? null : replay.getPlayer().getName();
+            this.difficulty = replay == null ? null : replay.getDifficulty();
+            this.adaptive = replay != null && replay.getEngine().isAdaptive();
+            this.score = replay == null ? 0 : replay.getPlayer().getScore();
+            this.startMillis = replay == null ? 0 : replay.getStartMillis();
+            this.seed = seed;
+        }
+
+        public boolean isAccepted() {
+            return accepted;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        public String getPlayerName() {
+            return playerName;
+        }
+
+        public Difficulty getDifficulty() {
+            return difficulty;
+        }
+
+        // Adaptive games draw from every corpus and score differently, so they're ranked apart
+        public boolean isAdaptive() {
+            return adaptive;
+        }
+
+        public int getScore() {
+            return score;
+        }
+
+        // Identifies the session, so the same replay can't be submitted twice
+        public String getSessionKey() {
+            return playerName + "/" + difficulty + "/" + startMillis + "/" + seed;
+        }
+    }
+
+    private ScoreVerifier() {
+    }
+
+    public static Verdict verify(byte[] replayBytes) {
+        ReplayPlayer replay = null;
+        long seed = 0;
+        try {
+            ReplayReader reader = new ReplayReader(new ByteArrayInputStream(replayBytes), "submission");
+            seed = reader.getSeed();
+            // The corpus name is the submitter's to choose; only the difficulty's own counts
+            if (!reader.getCorpusName().equals(reader.getDifficulty().getSentenceFile())) {
+                reader.close();
+                return new Verdict(false, "sentences do not match the difficulty", null, seed);
+            }
+            // So is the adaptive starting model, which sets sentence difficulty and time budgets
+            if (reader.isAdaptive() && !reader.getAdaptiveSkill().isValid()) {
+                reader.close();
+                return new Verdict(false, "implausible adaptive skill model", null, seed);
+            }
+            replay = new ReplayPlayer(reader, null, false);
+            replay.runToEnd();
+        } catch (IOException | RuntimeException e) {
+            return new Verdict(false, "unreadable replay: " + e.getMessage(), replay, seed);
+        } finally {
+            if (replay != null) {
+                try {
+                    replay.close();
+                } catch (IOException e) {
+                    // Only a byte array behind it
+                }
+            }
+        }
+
+        if (replay.getRecordedScore() < 0) {
+            return new Verdict(false, "recording is incomplete", replay, seed);
+        }
+        if (replay.getMismatches() > 0) {
+            return new Verdict(false, "replay does not reproduce the game: " + replay.getFirstMismatch(), replay, seed);
+        }
+
+        double netWpm = replay.getEngine().getMetrics().getNetWpm(TypingMetrics.Window.SESSION);
+        if (netWpm > MAX_NET_WPM) {
+            return new Verdict(false, String.format("implausible typing speed (%.0f WPM)", netWpm), replay, seed);
+        }
+        if (fastKeyFraction(replay.getEngine().getKeystrokes()) > MAX_FAST_KEY_FRACTION) {
+            return new Verdict(false, "keystroke timing looks automated", replay, seed);
+        }
+        return new Verdict(true, null, replay, seed);
+    }
+
+    // Share of consecutive typed keys (backspaces excluded) closer together than a human manages
+    private static double fastKeyFraction(KeystrokeRecorder keystrokes) {
+        long[] previous = {-1};
+        int[] counts = new int[2]; // [intervals, fast intervals]
+        keystrokes.drain((timestampNanos, position, expected, typed, correct) -> {
+            if (typed == KeystrokeRecorder.BACKSPACE) return;
+            if (previous[0] >= 0) {
+                counts[0]++;
+                if (timestampNanos - previous[0] < MIN_HUMAN_KEY_INTERVAL_NANOS) {
+                    counts[1]++;
+                }
+            }
+            previous[0] = timestampNanos;
+        });
+        return counts[0] < MIN_KEYS_FOR_TIMING_CHECK ? 0 : (double) counts[1] / counts[0];
+    }
+}
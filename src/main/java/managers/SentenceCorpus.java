@@ -0,0 +1,329 @@
+package managers;
+
+import java.io.*;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+public class SentenceCorpus {
+    private static final String RESOURCE_DIR = "src/main/java/resource/";
+
+    // Sidecar index layout: [i32 magic][i64 corpus size][i64 corpus mtime][i32 count]
+    //                       [count x (i32 start, i32 end)][count x i32 difficulty score]
+    //                       [SentenceMetadata.SHORT_COLUMNS x count x u16], one column after another
+    private static final int INDEX_MAGIC = 0x53494433; // "SID3"; older index files are rebuilt
+    private static final int INDEX_HEADER_BYTES = 24;
+    private static final int INDEX_BYTES_PER_SENTENCE = 12 + SentenceMetadata.SHORT_COLUMNS * 2;
+
+    // Compiled corpus written by CorpusCompiler at build time and bundled in the jar:
+    //   [i32 magic][i32 count][i32 text bytes][the sidecar index body][text]
+    // Ranges point into the text section, where every distinct sentence is stored once.
+    private static final int COMPILED_MAGIC = 0x53434231; // "SCB1"
+    private static final int COMPILED_HEADER_BYTES = 12;
+    public static final String COMPILED_EXTENSION = ".corpus";
+
+    private final String name;
+    private final ByteBuffer data;  // Raw UTF-8 corpus, memory-mapped when it lives on disk
+    private final IntBuffer index;  // Byte range of each trimmed, non-empty line
+    private final SentenceMetadata metadata;
+
+    // The index and metadata columns as laid out in the sidecar file
+    private static final class Table {
+        final IntBuffer ints;     // Ranges, then scores
+        final ShortBuffer shorts; // Metadata counts
+
+        Table(IntBuffer ints, ShortBuffer shorts) {
+            this.ints = ints;
+            this.shorts = shorts;
+        }
+
+        int count() {
+            return ints.limit() / 3;
+        }
+    }
+
+    private SentenceCorpus(String name, ByteBuffer data, Table table) {
+        int count = table.count();
+        this.name = name;
+        this.data = data;
+        this.index = table.ints.slice(0, count * 2);
+        this.metadata = new SentenceMetadata(count, table.ints.slice(count * 2, count), table.shorts);
+    }
+
+    public static SentenceCorpus load(String filename) throws IOException {
+        // Try 1: Direct file path
+        File file = new File(RESOURCE_DIR + filename);
+        if (file.exists()) {
+            return fromFile(filename, file.toPath());
+        }
+
+        // Try 2: Corpus compiled by the build, Try 3: Plain text on the class path
+        URL url = findResource(compiledName(filename));
+        if (url != null) {
+            return fromCompiled(filename, url);
+        }
+        url = findResource(filename);
+        if (url == null) {
+            throw new FileNotFoundException("Could not find resource: " + filename);
+        }
+
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return fromFile(filename, Paths.get(url.toURI()));
+            } catch (URISyntaxException e) {
+                // Fall through and read it as a stream
+            }
+        }
+
+        // Packed inside a jar: can't be mapped, so read it once into memory
+        try (InputStream input = url.openStream()) {
+            ByteBuffer data = ByteBuffer.wrap(input.readAllBytes());
+            return new SentenceCorpus(filename, data, buildTable(data));
+        }
+    }
+
+    private static URL findResource(String name) {
+        URL url = SentenceCorpus.class.getClassLoader().getResource(name);
+        return url != null ? url : SentenceCorpus.class.getResource("/" + name);
+    }
+
+    // "easy_sentences.txt" -> "easy_sentences.corpus"
+    public static String compiledName(String filename) {
+        int dot = filename.lastIndexOf('.');
+        return (dot > 0 ? filename.substring(0, dot) : filename) + COMPILED_EXTENSION;
+    }
+
+    // Maps the compiled corpus when it's a plain file, otherwise reads it in one go
+    private static SentenceCorpus fromCompiled(String name, URL url) throws IOException {
+        ByteBuffer compiled = null;
+        if ("file".equals(url.getProtocol())) {
+            try (FileChannel channel = FileChannel.open(Paths.get(url.toURI()), StandardOpenOption.READ)) {
+                compiled = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } catch (URISyntaxException e) {
+                // Fall through and read it as a stream
+            }
+        }
+        if (compiled == null) {
+            try (InputStream input = url.openStream()) {
+                compiled = ByteBuffer.wrap(input.readAllBytes());
+            }
+        }
+
+        if (compiled.remaining() < COMPILED_HEADER_BYTES || compiled.getInt() != COMPILED_MAGIC) {
+            throw new IOException("Not a compiled corpus: " + url);
+        }
+        int count = compiled.getInt();
+        int textBytes = compiled.getInt();
+        if (count < 0 || textBytes < 0
+                || compiled.remaining() != count * (long) INDEX_BYTES_PER_SENTENCE + textBytes) {
+            throw new IOException("Truncated compiled corpus: " + url);
+        }
+
+        ByteBuffer body = compiled.slice();
+        Table table = new Table(body.slice(0, count * 12).asIntBuffer(),
+                body.slice(count * 12, count * 10).asShortBuffer());
+        return new SentenceCorpus(name, body.slice(count * INDEX_BYTES_PER_SENTENCE, textBytes), table);
+    }
+
+    // Writes the compiled form of a text corpus; returns the number of distinct sentences.
+    // Sentence indices match the text corpus, so replays work with either.
+    public static int compile(Path textFile, Path compiledFile) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(textFile));
+        Table table = buildTable(data);
+        int count = table.count();
+
+        Map<ByteBuffer, Integer> offsets = new HashMap<>();
+        ByteArrayOutputStream text = new ByteArrayOutputStream();
+        int[] ints = new int[count * 3]; // Ranges into the text section, then the scores
+        for (int i = 0; i < count; i++) {
+            int start = table.ints.get(i * 2);
+            int end = table.ints.get(i * 2 + 1);
+            ByteBuffer sentence = data.slice(start, end - start);
+            Integer offset = offsets.get(sentence);
+            if (offset == null) {
+                offset = text.size();
+                offsets.put(sentence, offset);
+                text.write(data.array(), start, end - start);
+            }
+            ints[i * 2] = offset;
+            ints[i * 2 + 1] = offset + end - start;
+        }
+        table.ints.get(count * 2, ints, count * 2, count);
+
+        ByteBuffer buffer = ByteBuffer.allocate(COMPILED_HEADER_BYTES + count * INDEX_BYTES_PER_SENTENCE + text.size());
+        buffer.putInt(COMPILED_MAGIC);
+        buffer.putInt(count);
+        buffer.putInt(text.size());
+        putTable(buffer, new Table(IntBuffer.wrap(ints), table.shorts));
+        buffer.put(text.toByteArray());
+        buffer.flip();
+        writeAtomically(compiledFile, buffer);
+        return offsets.size();
+    }
+
+    // Opens a corpus file outside the usual resource locations
+    public static SentenceCorpus open(Path path) throws IOException {
+        return fromFile(path.getFileName().toString(), path);
+    }
+
+    private static SentenceCorpus fromFile(String name, Path path) throws IOException {
+        ByteBuffer data;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Corpus too large: " + path);
+            }
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        long size = Files.size(path);
+        long modified = Files.getLastModifiedTime(path).toMillis();
+        Path indexPath = Paths.get(path + ".idx");
+
+        Table table = mapIndex(indexPath, size, modified);
+        if (table == null) {
+            Table built = buildTable(data);
+            try {
+                writeIndex(indexPath, built, size, modified);
+                table = mapIndex(indexPath, size, modified);
+            } catch (IOException e) {
+                System.err.println("Could not write sentence index " + indexPath + ": " + e.getMessage());
+            }
+            if (table == null) {
+                table = built;
+            }
+        }
+        return new SentenceCorpus(name, data, table);
+    }
+
+    // Returns the mapped sidecar index, or null if it's missing or stale
+    private static Table mapIndex(Path indexPath, long corpusSize, long corpusModified) {
+        if (!Files.exists(indexPath)) return null;
+
+        try (FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+            if (channel.size() < INDEX_HEADER_BYTES) return null;
+
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (mapped.getInt() != INDEX_MAGIC || mapped.getLong() != corpusSize
+                    || mapped.getLong() != corpusModified) {
+                return null;
+            }
+            int count = mapped.getInt();
+            if (mapped.remaining() != count * (long) INDEX_BYTES_PER_SENTENCE) return null;
+
+            ByteBuffer body = mapped.slice();
+            return new Table(body.slice(0, count * 12).asIntBuffer(), body.slice(count * 12, count * 10).asShortBuffer());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static void writeIndex(Path indexPath, Table table, long corpusSize, long corpusModified)
+            throws IOException {
+        int count = table.count();
+        ByteBuffer buffer = ByteBuffer.allocate(INDEX_HEADER_BYTES + count * INDEX_BYTES_PER_SENTENCE);
+        buffer.putInt(INDEX_MAGIC);
+        buffer.putLong(corpusSize);
+        buffer.putLong(corpusModified);
+        buffer.putInt(count);
+        putTable(buffer, table);
+        buffer.flip();
+        writeAtomically(indexPath, buffer);
+    }
+
+    private static void putTable(ByteBuffer buffer, Table table) {
+        int count = table.count();
+        buffer.asIntBuffer().put(table.ints.duplicate().rewind());
+        buffer.position(buffer.position() + count * 12);
+        buffer.asShortBuffer().put(table.shorts.duplicate().rewind());
+        buffer.position(buffer.position() + count * SentenceMetadata.SHORT_COLUMNS * 2);
+    }
+
+    private static void writeAtomically(Path path, ByteBuffer buffer) throws IOException {
+        Path temp = Paths.get(path + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Line ranges plus every line's metadata, decoding each line once
+    private static Table buildTable(ByteBuffer data) {
+        int[] ranges = buildIndex(data);
+        int count = ranges.length / 2;
+        int[] ints = Arrays.copyOf(ranges, count * 3);
+        int[] scores = new int[count];
+        short[] counts = new short[count * SentenceMetadata.SHORT_COLUMNS];
+        for (int i = 0; i < count; i++) {
+            byte[] bytes = new byte[ranges[i * 2 + 1] - ranges[i * 2]];
+            data.get(ranges[i * 2], bytes);
+            SentenceMetadata.measure(new String(bytes, StandardCharsets.UTF_8), i, count, scores, counts);
+        }
+        System.arraycopy(scores, 0, ints, count * 2, count);
+        return new Table(IntBuffer.wrap(ints), ShortBuffer.wrap(counts));
+    }
+
+    // Scans the raw bytes once and records the (start, end) of each non-blank line
+    private static int[] buildIndex(ByteBuffer data) {
+        int[] ranges = new int[64];
+        int count = 0;
+        int limit = data.limit();
+        int lineStart = 0;
+
+        for (int i = 0; i <= limit; i++) {
+            if (i < limit && data.get(i) != '\n') continue;
+
+            // Trim ASCII whitespace and control bytes like String.trim() does
+            int start = lineStart;
+            int end = i;
+            while (start < end && (data.get(start) & 0xFF) <= ' ') start++;
+            while (end > start && (data.get(end - 1) & 0xFF) <= ' ') end--;
+
+            if (start < end) {
+                if (count + 2 > ranges.length) {
+                    ranges = Arrays.copyOf(ranges, ranges.length * 2);
+                }
+                ranges[count++] = start;
+                ranges[count++] = end;
+            }
+            lineStart = i + 1;
+        }
+        return Arrays.copyOf(ranges, count);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        return index.limit() / 2;
+    }
+
+    // Decodes just the requested sentence from the corpus bytes
+    public String get(int i) {
+        int start = index.get(i * 2);
+        int end = index.get(i * 2 + 1);
+        byte[] bytes = new byte[end - start];
+        data.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Precomputed SentenceDifficulty.score of sentence i
+    public int getDifficultyScore(int i) {
+        return metadata.getScore(i);
+    }
+
+    public SentenceMetadata getMetadata() {
+        return metadata;
+    }
+}
@@ -0,0 +1,44 @@
+package managers;
+
+// Effort needed to type a sentence, in tenths of a plain keystroke. Every character costs one
+// keystroke; shifted characters, digits, punctuation and long words cost extra. Computed once
+// per sentence when the corpus index is built.
+public final class SentenceDifficulty {
+    public static final int PER_KEY = 10;
+
+    private static final int SHIFTED = 6;       // Capitals and symbols that need Shift
+    private static final int DIGIT = 5;         // Off the home rows
+    private static final int PUNCTUATION = 3;
+    private static final int LONG_WORD = 1;     // Per letter of a word longer than LONG_WORD_LENGTH
+    private static final int LONG_WORD_LENGTH = 8;
+    private static final String SHIFTED_SYMBOLS = "~!@#$%^&*()_+{}|:\"<>?";
+
+    private SentenceDifficulty() {
+    }
+
+    public static int score(CharSequence sentence) {
+        int score = 0;
+        int wordStart = 0;
+        for (int i = 0; i <= sentence.length(); i++) {
+            if (i == sentence.length() || !Character.isLetter(sentence.charAt(i))) {
+                int wordLength = i - wordStart;
+                if (wordLength > LONG_WORD_LENGTH) {
+                    score += wordLength * LONG_WORD;
+                }
+                wordStart = i + 1;
+            }
+            if (i == sentence.length()) break;
+
+            char c = sentence.charAt(i);
+            score += PER_KEY;
+            if (Character.isUpperCase(c) || SHIFTED_SYMBOLS.indexOf(c) >= 0) {
+                score += SHIFTED;
+            } else if (Character.isDigit(c)) {
+                score += DIGIT;
+            } else if (!Character.isLetter(c) && c != ' ') {
+                score += PUNCTUATION;
+            }
+        }
+        return score;
+    }
+}
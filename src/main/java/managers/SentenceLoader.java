@@ -3,93 +3,181 @@ import java.io.*;
 import java.util.*;
 
 public class SentenceLoader {
-    private List<String> sentences;
+    private SentenceCorpus corpus;
     private String filename;
-    private List<Integer> unusedIndices; // Track unused sentences
+    private IndexSampler unusedIndices; // Track unused sentences
     private Random rand;
-
-    public SentenceLoader(String filename) {
-        this.filename = filename;
-        this.sentences = new ArrayList<>();
-        this.unusedIndices = new ArrayList<>();
-        this.rand = new Random();
-        loadSentences();
-    }
-
-    private void loadSentences() {
-        try {
-            // Try multiple approaches to find the file
-            InputStream input = null;
-
-            // Try 1: Direct file path
-            File file = new File("src/main/java/resource/" + filename);
-            if (file.exists()) {
-                input = new FileInputStream(file);
+    // Built on the first range query per column, then kept in step with unusedIndices
+    private Map<SentenceMetadata.Column, ColumnSampler> columnSamplers = new EnumMap<>(SentenceMetadata.Column.class);
+
+    // Which sentences are still unused, in the order of one metadata column: a Fenwick tree over
+    // positions in that order counts the unused ones, so a range can be counted and sampled quickly
+    private static final class ColumnSampler {
+        final int[] order;  // Sentence indices sorted by the column
+        final int[] rank;   // Sentence index -> position in order
+        final int[] tree;
+
+        ColumnSampler(int[] order, IndexSampler unused) {
+            this.order = order;
+            this.rank = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                rank[order[i]] = i;
             }
+            this.tree = new int[order.length + 1];
+            rebuild(unused);
+        }
 
-            // Try 2: Class loader
-            if (input == null) {
-                input = getClass().getClassLoader().getResourceAsStream(filename);
+        void rebuild(IndexSampler unused) {
+            Arrays.fill(tree, 0);
+            for (int i = 1; i < tree.length; i++) {
+                tree[i] += unused.isDrawn(order[i - 1]) ? 0 : 1;
+                int parent = i + (i & -i);
+                if (parent < tree.length) {
+                    tree[parent] += tree[i];
+                }
             }
+        }
 
-            // Try 3: Absolute class path
-            if (input == null) {
-                input = getClass().getResourceAsStream("/" + filename);
+        void add(int sentenceIndex, int delta) {
+            for (int i = rank[sentenceIndex] + 1; i < tree.length; i += i & -i) {
+                tree[i] += delta;
             }
+        }
 
-            if (input == null) {
-                throw new FileNotFoundException("Could not find resource: " + filename);
+        // Unused sentences at positions [0, position)
+        int countBefore(int position) {
+            int sum = 0;
+            for (int i = position; i > 0; i -= i & -i) {
+                sum += tree[i];
             }
+            return sum;
+        }
 
-            try (BufferedReader br = new BufferedReader(new InputStreamReader(input))) {
-                String line;
-                while ((line = br.readLine()) != null) {
-                    line = line.trim();
-                    if (!line.isEmpty()) {
-                        sentences.add(line);
-                    }
+        // Position of the unused sentence with k unused ones before it
+        int find(int k) {
+            int position = 0;
+            for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+                int next = position + step;
+                if (next < tree.length && tree[next] <= k) {
+                    position = next;
+                    k -= tree[next];
                 }
             }
+            return position;
+        }
+    }
 
-            if (sentences.isEmpty()) {
-                throw new IOException("No sentences found in file: " + filename);
-            }
+    public SentenceLoader(String filename) {
+        this(loadCorpus(filename), filename, new Random());
+    }
 
-            // Initialize unusedIndices after loading sentences
-            resetUnusedIndices();
+    // Shares the cached corpus for this difficulty; only the cursor is per session
+    public SentenceLoader(Difficulty difficulty) {
+        this(loadCorpus(difficulty), difficulty.getSentenceFile(), new Random());
+    }
+
+    public SentenceLoader(SentenceCorpus corpus) {
+        this(corpus, corpus.getName(), new Random());
+    }
+
+    // A seeded Random gives a reproducible sentence order, e.g. for simulations
+    public SentenceLoader(SentenceCorpus corpus, Random rand) {
+        this(corpus, corpus.getName(), rand);
+    }
 
+    private SentenceLoader(SentenceCorpus corpus, String filename, Random rand) {
+        this.corpus = corpus;
+        this.filename = filename;
+        this.rand = rand;
+
+        if (corpus.size() == 0) {
+            throw new RuntimeException("Error loading sentences from " + filename
+                    + ": No sentences found in file: " + filename);
+        }
+
+        // Initialize unusedIndices after loading sentences
+        this.unusedIndices = new IndexSampler(corpus.size(), rand);
+    }
+
+    private static SentenceCorpus loadCorpus(String filename) {
+        try {
+            // Only the line index is built here; sentences are decoded on demand
+            return SentenceCorpus.load(filename);
         } catch (IOException e) {
             throw new RuntimeException("Error loading sentences from " + filename + ": " + e.getMessage());
         }
     }
 
-    private void resetUnusedIndices() {
-        unusedIndices.clear();
-        for (int i = 0; i < sentences.size(); i++) {
-            unusedIndices.add(i);
+    private static SentenceCorpus loadCorpus(Difficulty difficulty) {
+        try {
+            return CorpusRegistry.get(difficulty);
+        } catch (IOException e) {
+            throw new RuntimeException("Error loading sentences from " + difficulty.getSentenceFile()
+                    + ": " + e.getMessage());
         }
-        // Shuffle the indices for additional randomness
-        Collections.shuffle(unusedIndices, rand);
     }
 
     public String getRandomSentence() {
-        if (sentences.isEmpty()) {
+        if (corpus.size() == 0) {
             throw new IllegalStateException("No sentences available!");
         }
 
-        // If all sentences have been used, reset the unused indices
-        if (unusedIndices.isEmpty()) {
-            resetUnusedIndices();
+        // O(1) draw; starts over once every sentence has been used
+        boolean newCycle = unusedIndices.remaining() == 0;
+        int sentenceIndex = unusedIndices.next();
+        if (newCycle) {
+            for (ColumnSampler sampler : columnSamplers.values()) {
+                sampler.rebuild(unusedIndices);
+            }
+        } else {
+            for (ColumnSampler sampler : columnSamplers.values()) {
+                sampler.add(sentenceIndex, -1);
+            }
         }
 
-        // Get and remove a random index from unusedIndices
-        int randomIndex = rand.nextInt(unusedIndices.size());
-        int sentenceIndex = unusedIndices.remove(randomIndex);
+        return corpus.get(sentenceIndex);
+    }
+
+    // A random sentence whose metadata column lies in [min, max], e.g. (LENGTH, 40, 60), that hasn't
+    // been drawn this cycle; once the range is used up it starts over. O(log n) per draw.
+    // Returns null if no sentence in the corpus qualifies.
+    public String getRandomSentence(SentenceMetadata.Column column, int min, int max) {
+        SentenceMetadata metadata = corpus.getMetadata();
+        int from = metadata.lowerBound(column, min);
+        int to = max == Integer.MAX_VALUE ? corpus.size() : metadata.lowerBound(column, max + 1);
+        if (from >= to) return null;
+
+        ColumnSampler sampler = columnSamplers.get(column);
+        if (sampler == null) {
+            sampler = new ColumnSampler(metadata.sortedBy(column), unusedIndices);
+            columnSamplers.put(column, sampler);
+        }
+
+        int unused = sampler.countBefore(to) - sampler.countBefore(from);
+        if (unused == 0) {
+            for (int i = from; i < to; i++) {
+                int index = sampler.order[i];
+                unusedIndices.release(index);
+                for (ColumnSampler other : columnSamplers.values()) {
+                    other.add(index, 1);
+                }
+            }
+            unused = to - from;
+        }
+
+        int sentenceIndex = sampler.order[sampler.find(sampler.countBefore(from) + rand.nextInt(unused))];
+        unusedIndices.markDrawn(sentenceIndex);
+        for (ColumnSampler other : columnSamplers.values()) {
+            other.add(sentenceIndex, -1);
+        }
+        return corpus.get(sentenceIndex);
+    }
 
-        return sentences.get(sentenceIndex);
+    public SentenceMetadata getMetadata() {
+        return corpus.getMetadata();
     }
 
     public int getSentenceCount() {
-        return sentences.size();
+        return corpus.size();
     }
 }
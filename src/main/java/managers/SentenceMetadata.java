@@ -0,0 +1,128 @@
+package managers;
+
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.util.*;
+
+// Per-sentence figures computed once when the corpus index is built and stored with it as
+// packed columns, so callers never rescan the text. Counts are unsigned 16-bit, saturating
+// at 65535. A column sorted by value is built on first use to answer range queries.
+public class SentenceMetadata {
+    public enum Column {
+        LENGTH,       // Characters
+        WORDS,        // Space-separated words
+        UPPERCASE,    // Capital letters
+        DIGITS,
+        PUNCTUATION,  // Anything that is not a letter, digit or space
+        SCORE         // SentenceDifficulty.score
+    }
+
+    static final int SHORT_COLUMNS = 5; // LENGTH to PUNCTUATION, stored after the int columns
+    private static final int MAX_COUNT = 0xFFFF;
+
+    private final int count;
+    private final IntBuffer scores;
+    private final ShortBuffer counts; // SHORT_COLUMNS columns of count values each
+    private final Map<Column, int[]> sorted = new EnumMap<>(Column.class);
+
+    SentenceMetadata(int count, IntBuffer scores, ShortBuffer counts) {
+        this.count = count;
+        this.scores = scores;
+        this.counts = counts;
+    }
+
+    // Fills in row i of the columns for one sentence; used while building the index
+    static void measure(String sentence, int i, int count, int[] scores, short[] counts) {
+        int words = 0;
+        int uppercase = 0;
+        int digits = 0;
+        int punctuation = 0;
+        boolean inWord = false;
+        for (int c = 0; c < sentence.length(); c++) {
+            char ch = sentence.charAt(c);
+            if (ch == ' ') {
+                inWord = false;
+                continue;
+            }
+            if (!inWord) {
+                words++;
+                inWord = true;
+            }
+            if (Character.isUpperCase(ch)) {
+                uppercase++;
+            } else if (Character.isDigit(ch)) {
+                digits++;
+            } else if (!Character.isLetter(ch)) {
+                punctuation++;
+            }
+        }
+
+        scores[i] = SentenceDifficulty.score(sentence);
+        counts[Column.LENGTH.ordinal() * count + i] = pack(sentence.length());
+        counts[Column.WORDS.ordinal() * count + i] = pack(words);
+        counts[Column.UPPERCASE.ordinal() * count + i] = pack(uppercase);
+        counts[Column.DIGITS.ordinal() * count + i] = pack(digits);
+        counts[Column.PUNCTUATION.ordinal() * count + i] = pack(punctuation);
+    }
+
+    private static short pack(int value) {
+        return (short) Math.min(value, MAX_COUNT);
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int get(Column column, int i) {
+        if (column == Column.SCORE) {
+            return scores.get(i);
+        }
+        return counts.get(column.ordinal() * count + i) & MAX_COUNT;
+    }
+
+    public int getLength(int i) {
+        return get(Column.LENGTH, i);
+    }
+
+    public int getWordCount(int i) {
+        return get(Column.WORDS, i);
+    }
+
+    public int getScore(int i) {
+        return scores.get(i);
+    }
+
+    // Sentence indices ordered by the column's value, ties by index
+    public synchronized int[] sortedBy(Column column) {
+        int[] order = sorted.get(column);
+        if (order == null) {
+            long[] keyed = new long[count];
+            for (int i = 0; i < count; i++) {
+                keyed[i] = ((long) get(column, i) << 32) | i;
+            }
+            Arrays.sort(keyed);
+            order = new int[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = (int) keyed[i];
+            }
+            sorted.put(column, order);
+        }
+        return order;
+    }
+
+    // First position in sortedBy(column) whose value is >= value
+    public int lowerBound(Column column, int value) {
+        int[] order = sortedBy(column);
+        int lo = 0;
+        int hi = order.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (get(column, order[mid]) < value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,149 @@
+package managers;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+// What adaptive mode knows about a player: typing rate in SentenceDifficulty points per second
+// and keystroke accuracy, both exponentially weighted so recent rounds count most. It picks
+// how hard the next sentence should be and how long the player gets for it.
+public class SkillModel {
+    public static final Path DEFAULT_FILE = Paths.get("skills.txt");
+
+    private static final double SMOOTHING = 0.3;           // Weight of the newest round
+    private static final double TARGET_SECONDS = 10;       // Aim for sentences this long to type
+    private static final double REACTION_SECONDS = 1.5;    // Reading the sentence before typing
+    private static final double BUDGET_MARGIN = 0.4;       // Extra time on top of the prediction
+    private static final int MIN_BUDGET_SECONDS = 4;
+    private static final int MAX_BUDGET_SECONDS = 60;
+    private static final double MIN_RATE = 10;             // One plain key per second
+    private static final double TIMEOUT_SLOWDOWN = 0.85;
+
+    private double rate;
+    private double accuracy;
+    private int rounds;
+
+    public SkillModel(double rate, double accuracy, int rounds) {
+        this.rate = rate;
+        this.accuracy = accuracy;
+        this.rounds = rounds;
+    }
+
+    // Starting guess for a new player from the difficulty they picked, about 35 to 55 WPM
+    public static SkillModel initial(Difficulty difficulty) {
+        return new SkillModel(30 + 7.5 * difficulty.ordinal(), 0.95, 0);
+    }
+
+    public SkillModel copy() {
+        return new SkillModel(rate, accuracy, rounds);
+    }
+
+    // Folds in a sentence of the given score typed correctly in elapsedNanos
+    public void update(int score, long elapsedNanos, int typed, int correct) {
+        double seconds = Math.max(0.5, elapsedNanos / 1e9);
+        double roundAccuracy = typed == 0 ? 1.0 : (double) correct / typed;
+        rate = Math.max(MIN_RATE, rate + SMOOTHING * (score / seconds - rate));
+        accuracy = accuracy + SMOOTHING * (roundAccuracy - accuracy);
+        rounds++;
+    }
+
+    // The player ran out of time, so the prediction was too optimistic
+    public void timedOut() {
+        rate = Math.max(MIN_RATE, rate * TIMEOUT_SLOWDOWN);
+    }
+
+    // Score of the sentence to offer next; errors pull it down so sloppy typists get shorter lines
+    public int targetScore() {
+        return (int) Math.round(rate * TARGET_SECONDS * accuracy * accuracy);
+    }
+
+    // Time allowed for a sentence of the given score
+    public int timeBudgetSeconds(int score) {
+        double predicted = REACTION_SECONDS + score / rate * (1 + BUDGET_MARGIN) / Math.max(0.5, accuracy);
+        return Math.max(MIN_BUDGET_SECONDS, Math.min(MAX_BUDGET_SECONDS, (int) Math.ceil(predicted)));
+    }
+
+    // Whether this game could have produced the model; a submitted replay may carry anything
+    public boolean isValid() {
+        return Double.isFinite(rate) && rate >= MIN_RATE
+                && Double.isFinite(accuracy) && accuracy >= 0 && accuracy <= 1 && rounds >= 0;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public double getAccuracy() {
+        return accuracy;
+    }
+
+    public int getRounds() {
+        return rounds;
+    }
+
+    // Approximate words per minute, counting SentenceDifficulty.PER_KEY points as one character
+    public double getWpm() {
+        return rate / SentenceDifficulty.PER_KEY * 60 / 5;
+    }
+
+    // The player's saved model, or the initial guess for the difficulty if there is none
+    public static SkillModel load(Path file, String name, Difficulty difficulty) {
+        try {
+            SkillModel saved = FileLocks.withLock(lockFile(file), lock -> readAll(file)).get(name);
+            if (saved != null) return saved;
+        } catch (IOException e) {
+            System.err.println("Error loading typing skill: " + e.getMessage());
+        }
+        return initial(difficulty);
+    }
+
+    public static void save(Path file, String name, SkillModel skill) {
+        try {
+            FileLocks.withLock(lockFile(file), lock -> {
+                Map<String, SkillModel> skills = readAll(file);
+                skills.put(name, skill);
+                writeAll(file, skills);
+                return null;
+            });
+        } catch (IOException e) {
+            System.err.println("Error saving typing skill: " + e.getMessage());
+        }
+    }
+
+    private static Path lockFile(Path file) {
+        return Paths.get(file + ".lock");
+    }
+
+    // One "name<TAB>rate<TAB>accuracy<TAB>rounds" line per player
+    private static Map<String, SkillModel> readAll(Path file) throws IOException {
+        Map<String, SkillModel> skills = new HashMap<>();
+        if (!Files.exists(file)) return skills;
+
+        try (BufferedReader br = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] fields = line.split("\t");
+                if (fields.length != 4) continue;
+                try {
+                    skills.put(fields[0], new SkillModel(Double.parseDouble(fields[1]),
+                            Double.parseDouble(fields[2]), Integer.parseInt(fields[3])));
+                } catch (NumberFormatException e) {
+                    System.err.println("Invalid skill format: " + line);
+                }
+            }
+        }
+        return skills;
+    }
+
+    private static void writeAll(Path file, Map<String, SkillModel> skills) throws IOException {
+        Path temp = Paths.get(file + ".tmp");
+        try (PrintWriter pw = new PrintWriter(Files.newBufferedWriter(temp, StandardCharsets.UTF_8))) {
+            for (Map.Entry<String, SkillModel> entry : skills.entrySet()) {
+                SkillModel skill = entry.getValue();
+                pw.println(entry.getKey() + "\t" + skill.rate + "\t" + skill.accuracy + "\t" + skill.rounds);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
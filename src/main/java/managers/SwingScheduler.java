@@ -0,0 +1,101 @@
+package managers;
+
+import javax.swing.*;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// One background thread keeps the clock; every task itself runs on the EDT
+public class SwingScheduler implements Scheduler {
+    private static SwingScheduler instance;
+
+    private final ScheduledExecutorService clock;
+    private final Map<String, Task> tasks = new ConcurrentHashMap<>();
+
+    private class Task implements Runnable {
+        final String key;
+        final Runnable action;
+        final boolean repeating;
+        final AtomicBoolean queued = new AtomicBoolean();
+        volatile ScheduledFuture<?> future;
+
+        Task(String key, Runnable action, boolean repeating) {
+            this.key = key;
+            this.action = action;
+            this.repeating = repeating;
+        }
+
+        @Override
+        public void run() {
+            if (tasks.get(key) != this) {
+                // Cancelled before its future was known: stop it from firing again
+                ScheduledFuture<?> f = future;
+                if (f != null) f.cancel(false);
+                return;
+            }
+
+            // Coalesce: if the EDT hasn't run the previous tick yet, skip this one
+            if (queued.compareAndSet(false, true)) {
+                SwingUtilities.invokeLater(this::runOnEdt);
+            }
+        }
+
+        private void runOnEdt() {
+            queued.set(false);
+            if (tasks.get(key) != this) return; // Replaced or cancelled meanwhile
+
+            if (!repeating) {
+                tasks.remove(key, this);
+            }
+            action.run();
+        }
+    }
+
+    public SwingScheduler() {
+        clock = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "swing-scheduler");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public static synchronized SwingScheduler getInstance() {
+        if (instance == null) {
+            instance = new SwingScheduler();
+        }
+        return instance;
+    }
+
+    @Override
+    public void schedule(String key, long delayMillis, Runnable task) {
+        Task scheduled = new Task(key, task, false);
+        replace(key, scheduled);
+        scheduled.future = clock.schedule(scheduled, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void scheduleRepeating(String key, long periodMillis, Runnable task) {
+        long period = Math.max(1, periodMillis);
+        Task scheduled = new Task(key, task, true);
+        replace(key, scheduled);
+        scheduled.future = clock.scheduleAtFixedRate(scheduled, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public boolean cancel(String key) {
+        Task removed = tasks.remove(key);
+        if (removed == null) return false;
+
+        if (removed.future != null) {
+            removed.future.cancel(false);
+        }
+        return true;
+    }
+
+    private void replace(String key, Task task) {
+        Task previous = tasks.put(key, task);
+        if (previous != null && previous.future != null) {
+            previous.future.cancel(false);
+        }
+    }
+}
@@ -1,13 +1,23 @@
 package managers;
 
-import javax.swing.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class TimerManager {
-    private Timer timer;
-    private int timeRemaining;
+    // How often the display is refreshed; the countdown itself is deadline based
+    public static final int DEFAULT_REFRESH_MILLIS = 100;
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final AtomicInteger ids = new AtomicInteger();
+
+    private Scheduler scheduler;
+    private GameClock clock;
+    private String tickKey;
+    private int refreshMillis;
+    private long remainingNanos;  // Valid while stopped
+    private long deadlineNanos;   // Valid while running
     private int baseTime;
+    private int lastReportedSeconds;
     private TimerCallback callback;
     private boolean isRunning;
 
@@ -17,56 +27,99 @@ public class TimerManager {
     }
 
     public TimerManager(int initialTime, TimerCallback callback) {
+        this(initialTime, callback, DEFAULT_REFRESH_MILLIS);
+    }
+
+    public TimerManager(int initialTime, TimerCallback callback, int refreshMillis) {
+        this(initialTime, callback, refreshMillis, SwingScheduler.getInstance());
+    }
+
+    public TimerManager(int initialTime, TimerCallback callback, int refreshMillis, Scheduler scheduler) {
+        this(initialTime, callback, refreshMillis, scheduler, GameClock.SYSTEM);
+    }
+
+    public TimerManager(int initialTime, TimerCallback callback, int refreshMillis,
+                        Scheduler scheduler, GameClock clock) {
         this.baseTime = initialTime;
-        this.timeRemaining = initialTime;
+        this.remainingNanos = initialTime * NANOS_PER_SECOND;
+        this.lastReportedSeconds = initialTime;
         this.callback = callback;
         this.isRunning = false;
+        this.scheduler = scheduler;
+        this.clock = clock;
+        this.tickKey = "timer-" + ids.incrementAndGet();
+        this.refreshMillis = refreshMillis;
+    }
+
+    private void tick() {
+        long remaining = remainingNanos();
+        if (remaining <= 0) {
+            stop();
+            remainingNanos = 0;
+            report();
+            callback.onTimeUp();
+            return;
+        }
+
+        // Only notify when the displayed second changes
+        if (toDisplaySeconds(remaining) != lastReportedSeconds) {
+            report();
+        }
+    }
+
+    private long remainingNanos() {
+        return isRunning ? deadlineNanos - clock.nanoTime() : remainingNanos;
+    }
 
-        this.timer = new Timer(1000, new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                timeRemaining--;
-                callback.onTimeUpdate(timeRemaining);
+    private void setRemainingNanos(long nanos) {
+        if (isRunning) {
+            deadlineNanos = clock.nanoTime() + nanos;
+        } else {
+            remainingNanos = nanos;
+        }
+    }
+
+    private void report() {
+        lastReportedSeconds = getTimeRemaining();
+        callback.onTimeUpdate(lastReportedSeconds);
+    }
 
-                if (timeRemaining <= 0) {
-                    stop();
-                    callback.onTimeUp();
-                }
-            }
-        });
+    // Whole seconds shown to the player, rounded up so "1" is shown until time is really up
+    private static int toDisplaySeconds(long nanos) {
+        if (nanos <= 0) return 0;
+        return (int) ((nanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
     }
 
     public void start() {
         if (!isRunning) {
-            timer.start();
+            deadlineNanos = clock.nanoTime() + remainingNanos;
+            scheduler.scheduleRepeating(tickKey, refreshMillis, this::tick);
             isRunning = true;
         }
     }
 
     public void stop() {
         if (isRunning) {
-            timer.stop();
+            remainingNanos = Math.max(0, deadlineNanos - clock.nanoTime());
+            scheduler.cancel(tickKey);
             isRunning = false;
         }
     }
 
     public void pause() {
-        if (isRunning) {
-            timer.stop();
-            isRunning = false;
-        }
+        // Keeps the partial second, resume continues from exactly here
+        stop();
     }
 
     public void resume() {
-        if (!isRunning && timeRemaining > 0) {
-            timer.start();
-            isRunning = true;
+        if (!isRunning && remainingNanos > 0) {
+            start();
         }
     }
 
     public void addTime(int seconds) {
-        timeRemaining += seconds;
-        callback.onTimeUpdate(timeRemaining);
+        setRemainingNanos(remainingNanos() + seconds * NANOS_PER_SECOND);
+        report();
     }
 
     public void adjustSpeedForRound(int round) {
@@ -76,37 +129,34 @@ public class TimerManager {
 
         // If we need to adjust the current timer
         if (adjustedBaseTime != baseTime) {
-            boolean wasRunning = isRunning;
-            stop();
-
             // Calculate ratio to maintain relative time
-            double ratio = (double) timeRemaining / baseTime;
+            double ratio = (double) remainingNanos() / (baseTime * NANOS_PER_SECOND);
             baseTime = adjustedBaseTime;
-            timeRemaining = Math.max(1, (int) (baseTime * ratio));
+            setRemainingNanos(Math.max(NANOS_PER_SECOND, (long) (baseTime * NANOS_PER_SECOND * ratio)));
 
-            if (wasRunning) {
-                start();
-            }
-
-            callback.onTimeUpdate(timeRemaining);
+            report();
         }
     }
 
     public void reset() {
         stop();
-        timeRemaining = baseTime;
-        callback.onTimeUpdate(timeRemaining);
+        remainingNanos = baseTime * NANOS_PER_SECOND;
+        report();
     }
 
     public void resetToNewBase(int newBaseTime) {
         stop();
         this.baseTime = newBaseTime;
-        this.timeRemaining = newBaseTime;
-        callback.onTimeUpdate(timeRemaining);
+        this.remainingNanos = newBaseTime * NANOS_PER_SECOND;
+        report();
     }
 
     public int getTimeRemaining() {
-        return timeRemaining;
+        return toDisplaySeconds(remainingNanos());
+    }
+
+    public long getTimeRemainingMillis() {
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(remainingNanos()));
     }
 
     public boolean isRunning() {
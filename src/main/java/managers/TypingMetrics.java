@@ -0,0 +1,150 @@
+package managers;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+// Streaming WPM/accuracy: O(1) per keystroke and constant memory for every window
+public class TypingMetrics {
+    private static final double CHARS_PER_WORD = 5.0;
+    private static final double NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    public enum Window {
+        LAST_5_SECONDS, LAST_30_SECONDS, SESSION
+    }
+
+    // Ring of time buckets; a bucket is reset the first time it's reused for a newer period
+    private static class SlidingWindow {
+        final long bucketNanos;
+        final long[] periods;
+        final int[] typed;
+        final int[] correct;
+
+        SlidingWindow(long spanMillis, int buckets) {
+            this.bucketNanos = TimeUnit.MILLISECONDS.toNanos(spanMillis) / buckets;
+            this.periods = new long[buckets];
+            this.typed = new int[buckets];
+            this.correct = new int[buckets];
+            Arrays.fill(periods, Long.MIN_VALUE);
+        }
+
+        void add(long elapsedNanos, boolean isCorrect) {
+            long period = elapsedNanos / bucketNanos;
+            int slot = (int) (period % periods.length);
+            if (periods[slot] != period) {
+                periods[slot] = period;
+                typed[slot] = 0;
+                correct[slot] = 0;
+            }
+            typed[slot]++;
+            if (isCorrect) correct[slot]++;
+        }
+
+        // Sums the buckets that are still inside the window; {typed, correct}
+        void totals(long elapsedNanos, int[] out) {
+            long current = elapsedNanos / bucketNanos;
+            int t = 0;
+            int c = 0;
+            for (int i = 0; i < periods.length; i++) {
+                if (periods[i] > current - periods.length && periods[i] <= current) {
+                    t += typed[i];
+                    c += correct[i];
+                }
+            }
+            out[0] = t;
+            out[1] = c;
+        }
+
+        // Time actually covered: the full older buckets plus the part of the current one
+        long spanNanos(long elapsedNanos) {
+            return bucketNanos * (periods.length - 1) + elapsedNanos % bucketNanos;
+        }
+    }
+
+    private final GameClock clock;
+    private final SlidingWindow last5 = new SlidingWindow(5000, 10);
+    private final SlidingWindow last30 = new SlidingWindow(30000, 30);
+    private final int[] scratch = new int[2];
+
+    private long startNanos;
+    private long endNanos = -1; // Set by stop(), freezes the session figures
+    private int typed;
+    private int correct;
+
+    public TypingMetrics(GameClock clock) {
+        this.clock = clock;
+        this.startNanos = clock.nanoTime();
+    }
+
+    public void start() {
+        startNanos = clock.nanoTime();
+        endNanos = -1;
+    }
+
+    public void stop() {
+        endNanos = clock.nanoTime();
+    }
+
+    // Backspaces are not fed here, only characters typed
+    public void record(long timestampNanos, boolean isCorrect) {
+        long elapsed = Math.max(0, timestampNanos - startNanos);
+        last5.add(elapsed, isCorrect);
+        last30.add(elapsed, isCorrect);
+        typed++;
+        if (isCorrect) correct++;
+    }
+
+    public double getGrossWpm(Window window) {
+        int[] totals = totals(window);
+        return perMinute(totals[0], window) / CHARS_PER_WORD;
+    }
+
+    // Gross WPM minus the errors per minute
+    public double getNetWpm(Window window) {
+        int[] totals = totals(window);
+        int errors = totals[0] - totals[1];
+        return Math.max(0, (perMinute(totals[0], window) / CHARS_PER_WORD) - perMinute(errors, window));
+    }
+
+    public double getAccuracy(Window window) {
+        int[] totals = totals(window);
+        return totals[0] == 0 ? 1.0 : (double) totals[1] / totals[0];
+    }
+
+    public TypingStats snapshot() {
+        return new TypingStats(getGrossWpm(Window.SESSION), getNetWpm(Window.SESSION),
+                getAccuracy(Window.SESSION), typed, typed - correct);
+    }
+
+    private int[] totals(Window window) {
+        long elapsed = elapsedNanos();
+        switch (window) {
+            case LAST_5_SECONDS:
+                last5.totals(elapsed, scratch);
+                break;
+            case LAST_30_SECONDS:
+                last30.totals(elapsed, scratch);
+                break;
+            default:
+                scratch[0] = typed;
+                scratch[1] = correct;
+        }
+        return scratch;
+    }
+
+    private double perMinute(int count, Window window) {
+        long span = elapsedNanos();
+        if (window == Window.LAST_5_SECONDS) {
+            span = Math.min(span, last5.spanNanos(span));
+        } else if (window == Window.LAST_30_SECONDS) {
+            span = Math.min(span, last30.spanNanos(span));
+        }
+        // Avoid absurd rates in the first fraction of a second
+        span = Math.max(span, TimeUnit.SECONDS.toNanos(1));
+        return count * NANOS_PER_MINUTE / span;
+    }
+
+    private long elapsedNanos() {
+        long now = endNanos >= 0 ? endNanos : clock.nanoTime();
+        return Math.max(0, now - startNanos);
+    }
+}
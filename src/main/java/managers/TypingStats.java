@@ -0,0 +1,37 @@
+package managers;
+
+public final class TypingStats {
+    private final double grossWpm;
+    private final double netWpm;
+    private final double accuracy; // 0.0 - 1.0
+    private final int keystrokes;
+    private final int errors;
+
+    public TypingStats(double grossWpm, double netWpm, double accuracy, int keystrokes, int errors) {
+        this.grossWpm = grossWpm;
+        this.netWpm = netWpm;
+        this.accuracy = accuracy;
+        this.keystrokes = keystrokes;
+        this.errors = errors;
+    }
+
+    public double getGrossWpm() {
+        return grossWpm;
+    }
+
+    public double getNetWpm() {
+        return netWpm;
+    }
+
+    public double getAccuracy() {
+        return accuracy;
+    }
+
+    public int getKeystrokes() {
+        return keystrokes;
+    }
+
+    public int getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,77 @@
+package managers;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Clock and scheduler that only move when advance() is called, for headless simulation
+public class VirtualClock implements GameClock, Scheduler {
+    private final Map<String, Task> tasks = new HashMap<>();
+    private long now;
+
+    private static class Task {
+        final Runnable action;
+        final long periodNanos; // 0 for one-shot tasks
+        long dueNanos;
+
+        Task(Runnable action, long dueNanos, long periodNanos) {
+            this.action = action;
+            this.dueNanos = dueNanos;
+            this.periodNanos = periodNanos;
+        }
+    }
+
+    @Override
+    public long nanoTime() {
+        return now;
+    }
+
+    @Override
+    public void schedule(String key, long delayMillis, Runnable task) {
+        tasks.put(key, new Task(task, now + TimeUnit.MILLISECONDS.toNanos(delayMillis), 0));
+    }
+
+    @Override
+    public void scheduleRepeating(String key, long periodMillis, Runnable task) {
+        long period = TimeUnit.MILLISECONDS.toNanos(Math.max(1, periodMillis));
+        tasks.put(key, new Task(task, now + period, period));
+    }
+
+    @Override
+    public boolean cancel(String key) {
+        return tasks.remove(key) != null;
+    }
+
+    // Moves time forward, running every task that falls due on the way in time order
+    public void advance(long millis) {
+        advanceTo(now + TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    public void advanceTo(long target) {
+        while (true) {
+            String nextKey = null;
+            Task next = null;
+            for (Map.Entry<String, Task> entry : tasks.entrySet()) {
+                Task task = entry.getValue();
+                if (task.dueNanos <= target && (next == null || task.dueNanos < next.dueNanos)) {
+                    nextKey = entry.getKey();
+                    next = task;
+                }
+            }
+            if (next == null) break;
+
+            now = Math.max(now, next.dueNanos);
+            if (next.periodNanos > 0) {
+                next.dueNanos += next.periodNanos;
+            } else {
+                tasks.remove(nextKey);
+            }
+            next.action.run();
+        }
+        now = Math.max(now, target);
+    }
+
+    public boolean hasPendingTasks() {
+        return !tasks.isEmpty();
+    }
+}
@@ -4,21 +4,44 @@ import managers.*;
 import javax.swing.*;
 import javax.swing.table.*;
 import java.awt.*;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.List;
 
 public class GameOverFrame extends JFrame {
+    private static final long WEEK_MILLIS = 7L * 24 * 60 * 60 * 1000;
+
     private Player player;
     private Difficulty difficulty;
+    private boolean adaptive;        // Scored on the adaptive board, apart from fixed-mode games
+    private TypingStats typingStats; // null when no typing metrics were collected
+    private Path replayFile;         // null when the game wasn't recorded
     private HighScoreManager hsm;
+    private GameSummary summary;
 
     public GameOverFrame(Player player, Difficulty difficulty) {
+        this(player, difficulty, null);
+    }
+
+    public GameOverFrame(Player player, Difficulty difficulty, TypingStats typingStats) {
+        this(player, difficulty, typingStats, null);
+    }
+
+    public GameOverFrame(Player player, Difficulty difficulty, TypingStats typingStats, Path replayFile) {
+        this(player, difficulty, false, typingStats, replayFile);
+    }
+
+    public GameOverFrame(Player player, Difficulty difficulty, boolean adaptive, TypingStats typingStats, Path replayFile) {
         this.player = player;
         this.difficulty = difficulty;
-        this.hsm = new HighScoreManager();
+        this.adaptive = adaptive;
+        this.typingStats = typingStats;
+        this.replayFile = replayFile;
+        this.hsm = HighScoreManager.forDifficulty(difficulty, adaptive);
         
-        // Save the score
-        hsm.saveScore(player.getName(), player.getScore());
+        // Save the score and fetch rank, best and top scores in one go
+        summary = hsm.submitAndSummarize(player.getName(), player.getScore(), 10);
+        hsm.recordGame(player.getName(), player.getScore(), player.getRound() - 1);
         
         initializeComponents();
         setupLayout();
@@ -109,6 +132,9 @@ public class GameOverFrame extends JFrame {
         });
         
         buttonPanel.add(tryAgainButton);
+        if (replayFile != null) {
+            buttonPanel.add(createReplayButton());
+        }
         buttonPanel.add(exitButton);
 
         // Main content panel with modern layout
@@ -123,6 +149,35 @@ public class GameOverFrame extends JFrame {
         add(buttonPanel, BorderLayout.SOUTH);
     }
 
+    private JButton createReplayButton() {
+        JButton replayButton = new JButton("WATCH REPLAY");
+        replayButton.setPreferredSize(new Dimension(160, 50));
+        replayButton.setFont(new Font("Arial", Font.BOLD, 16));
+        replayButton.setForeground(Color.WHITE);
+        replayButton.setBackground(new Color(63, 81, 181));
+        replayButton.setBorder(BorderFactory.createLineBorder(new Color(48, 63, 159), 2));
+        replayButton.setFocusPainted(false);
+        replayButton.setCursor(new Cursor(Cursor.HAND_CURSOR));
+        replayButton.addActionListener(e -> {
+            new GamePanel(replayFile, 1);
+            dispose();
+        });
+
+        // Add hover effect to replay button
+        replayButton.addMouseListener(new java.awt.event.MouseAdapter() {
+            @Override
+            public void mouseEntered(java.awt.event.MouseEvent e) {
+                replayButton.setBackground(new Color(57, 73, 171));
+            }
+
+            @Override
+            public void mouseExited(java.awt.event.MouseEvent e) {
+                replayButton.setBackground(new Color(63, 81, 181));
+            }
+        });
+        return replayButton;
+    }
+
     private JPanel createPlayerStatsPanel() {
         JPanel panel = new JPanel();
         panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
@@ -142,7 +197,7 @@ public class GameOverFrame extends JFrame {
         panel.add(Box.createVerticalStrut(15));
 
         // Create stats in a grid-like layout
-        JPanel statsGrid = new JPanel(new GridLayout(3, 2, 20, 10));
+        JPanel statsGrid = new JPanel(new GridLayout(typingStats != null ? 5 : 3, 2, 20, 10));
         statsGrid.setBackground(Color.WHITE);
 
         // Player name
@@ -175,6 +230,28 @@ public class GameOverFrame extends JFrame {
         statsGrid.add(roundsIconLabel);
         statsGrid.add(roundsLabel);
 
+        // Typing speed and accuracy
+        if (typingStats != null) {
+            JLabel wpmIconLabel = new JLabel("Net WPM:");
+            wpmIconLabel.setFont(new Font("Arial", Font.BOLD, 14));
+            wpmIconLabel.setForeground(new Color(100, 100, 100));
+            JLabel wpmLabel = new JLabel(String.format("%.0f (gross %.0f)",
+                    typingStats.getNetWpm(), typingStats.getGrossWpm()));
+            wpmLabel.setFont(new Font("Arial", Font.BOLD, 14));
+            wpmLabel.setForeground(new Color(0, 150, 136));
+
+            JLabel accuracyIconLabel = new JLabel("Accuracy:");
+            accuracyIconLabel.setFont(new Font("Arial", Font.BOLD, 14));
+            accuracyIconLabel.setForeground(new Color(100, 100, 100));
+            JLabel accuracyLabel = new JLabel(String.format("%.1f%%", typingStats.getAccuracy() * 100));
+            accuracyLabel.setFont(new Font("Arial", Font.BOLD, 14));
+
+            statsGrid.add(wpmIconLabel);
+            statsGrid.add(wpmLabel);
+            statsGrid.add(accuracyIconLabel);
+            statsGrid.add(accuracyLabel);
+        }
+
         panel.add(statsGrid);
         
         panel.add(Box.createVerticalStrut(15));
@@ -184,7 +261,7 @@ public class GameOverFrame extends JFrame {
         bottomStats.setBackground(Color.WHITE);
 
         // Difficulty
-        JLabel difficultyLabel = new JLabel("" + difficulty.name().toLowerCase());
+        JLabel difficultyLabel = new JLabel(difficulty.name().toLowerCase() + (adaptive ? " (adaptive)" : ""));
         difficultyLabel.setFont(new Font("Arial", Font.BOLD, 14));
         Color diffColor = difficulty == Difficulty.EASY ? new Color(76, 175, 80) :
                          difficulty == Difficulty.MEDIUM ? new Color(255, 152, 0) :
@@ -192,7 +269,7 @@ public class GameOverFrame extends JFrame {
         difficultyLabel.setForeground(diffColor);
 
         // Rank
-        int rank = hsm.getPlayerRank(player.getName(), player.getScore());
+        int rank = summary.getRank();
         JLabel rankLabel = new JLabel("Rank: #" + rank);
         rankLabel.setFont(new Font("Arial", Font.BOLD, 14));
         
@@ -211,8 +288,30 @@ public class GameOverFrame extends JFrame {
         bottomStats.add(rankLabel);
         panel.add(bottomStats);
 
+        // Tournament standing, once the server has checked the replay
+        if (replayFile != null && hsm.hasRemote()) {
+            panel.add(Box.createVerticalStrut(10));
+            JLabel serverLabel = new JLabel("Submitting to tournament server...");
+            serverLabel.setFont(new Font("Arial", Font.PLAIN, 13));
+            serverLabel.setForeground(new Color(100, 100, 100));
+            serverLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+            panel.add(serverLabel);
+
+            hsm.submitReplay(replayFile).whenComplete((verdict, error) -> SwingUtilities.invokeLater(() -> {
+                if (error != null) {
+                    serverLabel.setText("Tournament server unavailable");
+                } else if (verdict.startsWith("OK ")) {
+                    serverLabel.setText("Tournament rank: #" + verdict.substring(3));
+                    serverLabel.setForeground(new Color(76, 175, 80));
+                } else {
+                    serverLabel.setText("Tournament: " + verdict.replaceFirst("^REJECTED ", "rejected, "));
+                    serverLabel.setForeground(new Color(244, 67, 54));
+                }
+            }));
+        }
+
         // High score indicator with enhanced styling
-        if (hsm.isNewHighScore(player.getName(), player.getScore())) {
+        if (summary.isNewBest()) {
             panel.add(Box.createVerticalStrut(15));
             JLabel newHighScoreLabel = new JLabel("NEW HIGH SCORE!");
             newHighScoreLabel.setFont(new Font("Arial", Font.BOLD, 18));
@@ -239,33 +338,17 @@ public class GameOverFrame extends JFrame {
         ));
 
         // Enhanced title
-        JLabel titleLabel = new JLabel("HALL OF FAME - TOP PLAYERS");
+        JLabel titleLabel = new JLabel("HALL OF FAME - TOP " + difficulty.name() + (adaptive ? " ADAPTIVE" : "") + " PLAYERS");
         titleLabel.setFont(new Font("Arial", Font.BOLD, 16));
         titleLabel.setForeground(new Color(76, 175, 80));
         titleLabel.setHorizontalAlignment(JLabel.CENTER);
         titleLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 15, 0));
         panel.add(titleLabel, BorderLayout.NORTH);
 
-        // Create table data
-        List<Map.Entry<String, Integer>> topScores = hsm.getTopScores(10);
-        
-        String[] columnNames = {"Rank", "Player", "Score"};
-        Object[][] data = new Object[Math.min(10, topScores.size())][3];
-        
-        for (int i = 0; i < Math.min(10, topScores.size()); i++) {
-            Map.Entry<String, Integer> entry = topScores.get(i);
-            
-            String rank = "#" + (i + 1);
-//            if (i == 0) rank = "#1";
-//            else if (i == 1) rank = "#2";
-//            else if (i == 2) rank = "#3";
-//
-            data[i][0] = rank;
-            data[i][1] = entry.getKey();
-            data[i][2] = entry.getValue() + " pts";
-        }
+        // Rows are paged in from the leaderboard as the table scrolls
+        LeaderboardTableModel model = new LeaderboardTableModel(hsm.getLeaderboard());
 
-        JTable table = new JTable(data, columnNames);
+        JTable table = new JTable(model);
         table.setEnabled(false); // Make it non-editable
         table.getTableHeader().setReorderingAllowed(false);
         table.setFont(new Font("Arial", Font.PLAIN, 13));
@@ -286,7 +369,7 @@ public class GameOverFrame extends JFrame {
                 Component c = super.getTableCellRendererComponent(
                     table, value, isSelected, hasFocus, row, column);
                 
-                if (row < topScores.size() && topScores.get(row).getKey().equals(player.getName())) {
+                if (player.getName().equals(model.getPlayerAt(row))) {
                     c.setBackground(new Color(255, 243, 224));
                     setFont(getFont().deriveFont(Font.BOLD));
                     setForeground(new Color(255, 152, 0));
@@ -317,8 +400,22 @@ public class GameOverFrame extends JFrame {
         
         panel.add(scrollPane, BorderLayout.CENTER);
 
-        // Add a footer note
-        JLabel footerNote = new JLabel("Your best score is automatically saved!");
+        // Start with the player's own row in view
+        int playerRow = hsm.getLeaderboard().indexOf(player.getName());
+        if (playerRow > 0) {
+            SwingUtilities.invokeLater(() ->
+                table.scrollRectToVisible(table.getCellRect(Math.min(playerRow + 3, model.getRowCount() - 1), 0, true)));
+        }
+
+        // Add a footer note with the best game of the past week
+        String footerText = "Your best score is automatically saved!";
+        long now = System.currentTimeMillis();
+        List<GameRecord> weekBest = hsm.getTopGames(1, now - WEEK_MILLIS, Long.MAX_VALUE);
+        if (!weekBest.isEmpty()) {
+            GameRecord best = weekBest.get(0);
+            footerText = "Best this week: " + best.getPlayerName() + " - " + best.getScore() + " pts";
+        }
+        JLabel footerNote = new JLabel(footerText);
         footerNote.setFont(new Font("Arial", Font.ITALIC, 12));
         footerNote.setForeground(new Color(150, 150, 150));
         footerNote.setHorizontalAlignment(JLabel.CENTER);
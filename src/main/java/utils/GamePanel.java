@@ -1,5 +1,4 @@
 package utils;
-import managers.TimerManager;
 import managers.*;
 import javax.swing.*;
 import javax.swing.event.DocumentEvent;
@@ -7,39 +6,200 @@ import javax.swing.event.DocumentListener;
 import javax.swing.text.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class GamePanel extends JFrame implements GameEngine.Listener {
+    private static final AtomicInteger ids = new AtomicInteger();
 
-public class GamePanel extends JFrame implements TimerManager.TimerCallback {
     private Player player;
-    private SentenceLoader loader;
-    private TimerManager timerManager;
+    private GameEngine engine;
     private Difficulty difficulty;
+    private Scheduler scheduler;
+    private final String keyPrefix = "panel-" + ids.incrementAndGet() + "."; // The scheduler is shared by every window
+    private boolean adaptive;            // Sentences and time budget follow the player's SkillModel
+    private ReplayWriter replayWriter;   // Records the live game; null if the file couldn't be opened
+
+    // Playback mode: the engine is driven by a replay file instead of the keyboard
+    private ReplayPlayer replayPlayer;
+    private boolean playback;
+    private JSlider speedSlider;
+    private long playbackNanos;          // Position in the replay
+    private long lastTickNanos;
+    private int shownInputVersion = -1;
 
     // UI Components
-    private JLabel roundLabel, scoreLabel, livesLabel, timerLabel;
+    private JLabel roundLabel, scoreLabel, livesLabel, timerLabel, wpmLabel;
     private JLabel sentenceLabel;
     private JTextField inputField;
     private JLabel feedbackLabel;
     private JPanel statsPanel;
-    private JTextPane highlightedSentencePane;
+    private SentenceView sentenceView;
 
     private String currentSentence;
     private boolean gameActive;
+    private boolean clearingInput;  // Set while the game itself empties the input field
+    private final Segment typedSegment = new Segment();
+    private final Segment inputSegment = new Segment();
 
     public GamePanel(Player player, Difficulty difficulty) {
+        this(player, difficulty, false);
+    }
+
+    public GamePanel(Player player, Difficulty difficulty, boolean adaptive) {
         this.player = player;
         this.difficulty = difficulty;
-        this.loader = new SentenceLoader(difficulty.getSentenceFile());
-        this.timerManager = new TimerManager(difficulty.getInitialTime(), this);
-        this.gameActive = true;
+        this.adaptive = adaptive;
+        this.scheduler = SwingScheduler.getInstance();
+        this.gameActive = false;
 
         initializeComponents();
         setupLayout();
         setupEventHandlers();
-        loadNewSentence();
-        timerManager.start();
+
+        // Sentences are usually preloaded by the start menu; only wait if they aren't ready yet
+        CompletableFuture<SentenceCorpus> corpus = CorpusRegistry.preload(difficulty);
+        // Adaptive mode draws from every difficulty's sentences
+        CompletableFuture<?> ready = corpus;
+        if (adaptive) {
+            CompletableFuture<?>[] all = new CompletableFuture<?>[Difficulty.values().length];
+            for (Difficulty d : Difficulty.values()) {
+                all[d.ordinal()] = CorpusRegistry.preload(d);
+            }
+            ready = CompletableFuture.allOf(all);
+        }
+        if (ready.isDone()) {
+            // A failed start has already disposed of this frame and reopened the start menu
+            if (!startPlaying(corpus)) return;
+        } else {
+            showLoadingState();
+            ready.whenComplete((result, error) -> SwingUtilities.invokeLater(() -> startPlaying(corpus)));
+        }
+        setVisible(true);
+    }
+
+    // Plays back a recorded session at 1x to 50x speed
+    public GamePanel(Path replayFile, int speed) {
+        this.scheduler = SwingScheduler.getInstance();
+        this.playback = true;
+        try {
+            replayPlayer = new ReplayPlayer(replayFile, this);
+        } catch (IOException | RuntimeException e) {
+            JOptionPane.showMessageDialog(null,
+                    "Could not open replay: " + e.getMessage(),
+                    "Replay Error",
+                    JOptionPane.ERROR_MESSAGE);
+            new StartMenu();
+            dispose();
+            return;
+        }
+        this.player = replayPlayer.getPlayer();
+        this.difficulty = replayPlayer.getDifficulty();
+        this.engine = replayPlayer.getEngine();
+
+        initializeComponents();
+        setupLayout();
+        setupEventHandlers();
+        setTitle("Typing Speed Game - Replay of " + player.getName());
+        inputField.setEditable(false);
+        speedSlider.setValue(Math.max(1, Math.min(50, speed)));
+
+        gameActive = true;
+        lastTickNanos = System.nanoTime();
+        scheduler.scheduleRepeating(key("replay.tick"), 15, () -> playbackTick());
+        scheduler.scheduleRepeating(key("stats.wpm"), 500, () -> updateTypingStats());
         setVisible(true);
     }
 
+    private String key(String name) {
+        return keyPrefix + name;
+    }
+
+    private void playbackTick() {
+        long now = System.nanoTime();
+        playbackNanos += (now - lastTickNanos) * speedSlider.getValue();
+        lastTickNanos = now;
+
+        try {
+            replayPlayer.advanceTo(playbackNanos);
+        } catch (IOException e) {
+            System.err.println("Error reading replay: " + e.getMessage());
+            scheduler.cancel(key("replay.tick"));
+        }
+
+        // Show what the player had typed at this point
+        if (replayPlayer.getInputVersion() != shownInputVersion) {
+            shownInputVersion = replayPlayer.getInputVersion();
+            inputField.setText(replayPlayer.getInput());
+        }
+
+        // A recording cut short never reaches game over
+        if (replayPlayer.isEndOfFile() && !replayPlayer.isFinished() && !engine.isActive()) {
+            endGame();
+        }
+    }
+
+    private void showLoadingState() {
+        inputField.setEnabled(false);
+        feedbackLabel.setText("Loading sentences...");
+        feedbackLabel.setForeground(new Color(63, 81, 181));
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+    }
+
+    // Returns false if the sentences couldn't be loaded, after going back to the start menu
+    private boolean startPlaying(CompletableFuture<SentenceCorpus> corpus) {
+        setCursor(Cursor.getDefaultCursor());
+        long seed = new Random().nextLong();
+        SkillModel skill = null;
+        try {
+            engine = new GameEngine(player, difficulty, new SentenceLoader(corpus.join(), new Random(seed)),
+                    scheduler, GameClock.SYSTEM, this);
+            if (adaptive) {
+                skill = SkillModel.load(SkillModel.DEFAULT_FILE, player.getName(), difficulty);
+                engine.setAdaptive(AdaptiveSentencePicker.forAllDifficulties(new Random(seed)), skill);
+            }
+        } catch (IOException | RuntimeException e) {
+            JOptionPane.showMessageDialog(this,
+                    "Could not load sentences: " + e.getMessage(),
+                    "Loading Error",
+                    JOptionPane.ERROR_MESSAGE);
+            new StartMenu();
+            dispose();
+            return false;
+        }
+
+        startRecording(corpus.join(), seed, skill);
+
+        inputField.setEnabled(true);
+        feedbackLabel.setText(" ");
+        gameActive = true;
+        engine.start();
+
+        // Windows slide even when nobody types, so refresh the WPM card on a timer
+        scheduler.scheduleRepeating(key("stats.wpm"), 500, () -> updateTypingStats());
+        return true;
+    }
+
+    private void startRecording(SentenceCorpus corpus, long seed, SkillModel skill) {
+        String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+        String safeName = player.getName().replaceAll("[^A-Za-z0-9_-]", "_");
+        Path file = Paths.get("replays", stamp + "-" + difficulty.name().toLowerCase() + "-" + safeName + ".replay");
+        try {
+            replayWriter = new ReplayWriter(file, difficulty, seed, corpus.getName(),
+                    player.getName(), System.currentTimeMillis(), skill);
+            engine.setReplayWriter(replayWriter);
+        } catch (IOException | RuntimeException e) {
+            // The game goes on unrecorded
+            System.err.println("Could not record replay: " + e.getMessage());
+        }
+    }
+
     private void initializeComponents() {
         setTitle("Typing Speed Game - Playing");
         setSize(800, 500);
@@ -54,6 +214,7 @@ public class GamePanel extends JFrame implements TimerManager.TimerCallback {
         scoreLabel = new JLabel("Score: " + player.getScore());
         livesLabel = new JLabel("Lives: " + player.getLives());
         timerLabel = new JLabel("Time: " + difficulty.getInitialTime());
+        wpmLabel = new JLabel("WPM: 0");
 
         // Style stats labels
         Font statsFont = new Font("Arial", Font.BOLD, 16);
@@ -75,20 +236,19 @@ public class GamePanel extends JFrame implements TimerManager.TimerCallback {
         timerLabel.setForeground(statsColor);
         timerLabel.setIcon(createColorIcon(new Color(156, 39, 176))); // Purple
 
+        wpmLabel.setFont(statsFont);
+        wpmLabel.setForeground(statsColor);
+        wpmLabel.setIcon(createColorIcon(new Color(0, 150, 136))); // Teal
+
         // Game components with modern styling
         sentenceLabel = new JLabel("Type this sentence:");
         sentenceLabel.setFont(new Font("Arial", Font.BOLD, 14));
         sentenceLabel.setHorizontalAlignment(JLabel.CENTER);
 
-        // Create highlighted sentence pane with enhanced styling
-        highlightedSentencePane = new JTextPane();
-        highlightedSentencePane.setEditable(false);
-        highlightedSentencePane.setFont(new Font("Courier New", Font.PLAIN, 18));
-        highlightedSentencePane.setBackground(Color.WHITE);
-        highlightedSentencePane.setFocusable(false);
-        highlightedSentencePane.setHighlighter(null);
-        highlightedSentencePane.setCaret(null);
-        highlightedSentencePane.setBorder(BorderFactory.createCompoundBorder(
+        // Create highlighted sentence view with enhanced styling; it has no caret or selection
+        sentenceView = new SentenceView(new Font("Courier New", Font.PLAIN, 18));
+        sentenceView.setFocusable(false);
+        sentenceView.setBorder(BorderFactory.createCompoundBorder(
                 BorderFactory.createTitledBorder(
                         BorderFactory.createLineBorder(new Color(100, 149, 237), 2),
                         "Sentence to type:",
@@ -130,14 +290,12 @@ public class GamePanel extends JFrame implements TimerManager.TimerCallback {
                         feedbackLabel.setText("Copy/Paste is not allowed! Type manually!");
                         feedbackLabel.setForeground(new Color(255, 152, 0));
 
-                        // Clear the message after 2 seconds
-                        Timer clearMessage = new Timer(2000, clearEvent -> {
+                        // Clear the message after 2 seconds (replaces any pending clear)
+                        scheduler.schedule(key("feedback.clear"), 2000, () -> {
                             if (feedbackLabel.getText().contains("Copy/Paste")) {
                                 feedbackLabel.setText(" ");
                             }
                         });
-                        clearMessage.setRepeats(false);
-                        clearMessage.start();
                     }
                 }
             }
@@ -145,7 +303,7 @@ public class GamePanel extends JFrame implements TimerManager.TimerCallback {
 
         // Disable right-click context menu on both components
         inputField.setComponentPopupMenu(null);
-        highlightedSentencePane.setComponentPopupMenu(null);
+        sentenceView.setComponentPopupMenu(null);
 
         feedbackLabel = new JLabel(" ");
         feedbackLabel.setFont(new Font("Arial", Font.BOLD, 16));
@@ -158,7 +316,7 @@ public class GamePanel extends JFrame implements TimerManager.TimerCallback {
         ));
 
         // Style the timer based on time remaining
-        updateTimerDisplay();
+        updateTimerDisplay(difficulty.getInitialTime());
     }
 
     private Icon createColorIcon(Color color) {
@@ -193,8 +351,28 @@ public class GamePanel extends JFrame implements TimerManager.TimerCallback {
         headerLabel.setForeground(Color.WHITE);
         headerPanel.add(headerLabel);
 
+        if (playback) {
+            headerLabel.setText("REPLAY: " + player.getName().toUpperCase());
+
+            JLabel speedLabel = new JLabel("Speed:");
+            speedLabel.setFont(new Font("Arial", Font.BOLD, 14));
+            speedLabel.setForeground(Color.WHITE);
+            speedSlider = new JSlider(1, 50, 1);
+            speedSlider.setOpaque(false);
+            speedSlider.setFocusable(false);
+            JLabel speedValue = new JLabel("1x");
+            speedValue.setFont(new Font("Arial", Font.BOLD, 14));
+            speedValue.setForeground(Color.WHITE);
+            speedSlider.addChangeListener(e -> speedValue.setText(speedSlider.getValue() + "x"));
+
+            headerPanel.add(Box.createHorizontalStrut(20));
+            headerPanel.add(speedLabel);
+            headerPanel.add(speedSlider);
+            headerPanel.add(speedValue);
+        }
+
         // Stats panel with modern card design
-        statsPanel = new JPanel(new GridLayout(1, 4, 15, 0));
+        statsPanel = new JPanel(new GridLayout(1, 5, 15, 0));
         statsPanel.setBackground(new Color(240, 248, 255));
         statsPanel.setBorder(BorderFactory.createEmptyBorder(20, 30, 20, 30));
 
@@ -203,18 +381,20 @@ public class GamePanel extends JFrame implements TimerManager.TimerCallback {
         JPanel scoreCard = createStatCard(scoreLabel, new Color(255, 193, 7));
         JPanel livesCard = createStatCard(livesLabel, new Color(76, 175, 80));
         JPanel timerCard = createStatCard(timerLabel, new Color(156, 39, 176));
+        JPanel wpmCard = createStatCard(wpmLabel, new Color(0, 150, 136));
 
         statsPanel.add(roundCard);
         statsPanel.add(scoreCard);
         statsPanel.add(livesCard);
         statsPanel.add(timerCard);
+        statsPanel.add(wpmCard);
 
         // Game panel with enhanced styling
         JPanel gamePanel = new JPanel(new BorderLayout(15, 15));
         gamePanel.setBackground(new Color(240, 248, 255));
         gamePanel.setBorder(BorderFactory.createEmptyBorder(20, 30, 20, 30));
 
-        gamePanel.add(highlightedSentencePane, BorderLayout.NORTH);
+        gamePanel.add(sentenceView, BorderLayout.NORTH);
         gamePanel.add(inputField, BorderLayout.CENTER);
 
         // Feedback panel with enhanced styling
@@ -289,21 +469,27 @@ public class GamePanel extends JFrame implements TimerManager.TimerCallback {
             }
         });
 
-        // Add document listener for live highlighting
+        // Add document listener for live highlighting and keystroke capture
         inputField.getDocument().addDocumentListener(new DocumentListener() {
             @Override
             public void insertUpdate(DocumentEvent e) {
-                updateHighlighting();
+                recordTyped(e);
+                updateHighlighting(e.getOffset());
             }
 
             @Override
             public void removeUpdate(DocumentEvent e) {
-                updateHighlighting();
+                if (!clearingInput && !playback && engine != null) {
+                    for (int i = e.getLength() - 1; i >= 0; i--) {
+                        engine.keyDeleted(e.getOffset() + i);
+                    }
+                }
+                updateHighlighting(e.getOffset());
             }
 
             @Override
             public void changedUpdate(DocumentEvent e) {
-                updateHighlighting();
+                // Attributes only; the text is unchanged
             }
         });
 
@@ -316,127 +502,57 @@ public class GamePanel extends JFrame implements TimerManager.TimerCallback {
         });
     }
 
-    private void loadNewSentence() {
-        currentSentence = loader.getRandomSentence();
-        updateHighlighting();
+    private void recordTyped(DocumentEvent e) {
+        if (engine == null || playback) return;
+        try {
+            // Segment reuses the document's own buffer, so no String is created per key
+            e.getDocument().getText(e.getOffset(), e.getLength(), typedSegment);
+            for (int i = 0; i < typedSegment.count; i++) {
+                engine.keyTyped(e.getOffset() + i, typedSegment.array[typedSegment.offset + i]);
+            }
+        } catch (BadLocationException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    private void clearInput() {
+        clearingInput = true;
         inputField.setText("");
+        clearingInput = false;
+    }
+
+    private void loadNewSentence() {
+        sentenceView.setSentence(currentSentence);
+        clearInput();
         inputField.requestFocus();
 
-        // Clear previous feedback after a short delay
-        Timer clearFeedback = new Timer(3000, e -> {
+        // Clear previous feedback after a short delay (replaces any pending clear)
+        scheduler.schedule(key("feedback.clear"), 3000, () -> {
             if (feedbackLabel.getText().contains("Correct") ||
                     feedbackLabel.getText().contains("Wrong")) {
                 feedbackLabel.setText(" ");
             }
         });
-        clearFeedback.setRepeats(false);
-        clearFeedback.start();
     }
 
-    private void updateHighlighting() {
+    private void updateHighlighting(int changedFrom) {
         if (currentSentence == null) return;
 
-        String userInput = inputField.getText();
-        StyledDocument doc = highlightedSentencePane.getStyledDocument();
-
+        // Only the characters from the edit to the cursor are repainted
+        Document doc = inputField.getDocument();
         try {
-            // Clear existing content
-            doc.remove(0, doc.getLength());
-
-            // Define styles
-            Style correctStyle = highlightedSentencePane.addStyle("correct", null);
-            StyleConstants.setForeground(correctStyle, Color.GREEN);
-            StyleConstants.setBold(correctStyle, true);
-
-            Style incorrectStyle = highlightedSentencePane.addStyle("incorrect", null);
-            StyleConstants.setForeground(incorrectStyle, Color.RED);
-            StyleConstants.setBold(incorrectStyle, true);
-            StyleConstants.setBackground(incorrectStyle, Color.PINK);
-
-            Style currentStyle = highlightedSentencePane.addStyle("current", null);
-            StyleConstants.setForeground(currentStyle, Color.BLUE);
-            StyleConstants.setBold(currentStyle, true);
-            StyleConstants.setBackground(currentStyle, Color.LIGHT_GRAY);
-
-            Style defaultStyle = highlightedSentencePane.addStyle("default", null);
-            StyleConstants.setForeground(defaultStyle, Color.BLACK);
-
-            // Apply highlighting character by character
-            for (int i = 0; i < currentSentence.length(); i++) {
-                char sentenceChar = currentSentence.charAt(i);
-                String charStr = String.valueOf(sentenceChar);
-
-                if (i < userInput.length()) {
-                    char userChar = userInput.charAt(i);
-                    if (userChar == sentenceChar) {
-                        // Correct character
-                        doc.insertString(doc.getLength(), charStr, correctStyle);
-                    } else {
-                        // Incorrect character
-                        doc.insertString(doc.getLength(), charStr, incorrectStyle);
-                    }
-                } else if (i == userInput.length()) {
-                    // Current position (next character to type)
-                    doc.insertString(doc.getLength(), charStr, currentStyle);
-                } else {
-                    // Not yet typed
-                    doc.insertString(doc.getLength(), charStr, defaultStyle);
-                }
-            }
-
-            // If user typed more than the sentence length, show error
-            if (userInput.length() > currentSentence.length()) {
-                String extraText = userInput.substring(currentSentence.length());
-                doc.insertString(doc.getLength(), " [EXTRA: " + extraText + "]", incorrectStyle);
-            }
-
-        } catch (BadLocationException e) {
-            e.printStackTrace();
+            doc.getText(0, doc.getLength(), inputSegment);
+            sentenceView.update(inputSegment, changedFrom);
+        } catch (BadLocationException ex) {
+            ex.printStackTrace();
         }
     }
 
     private void checkInput() {
         if (!gameActive) return;
 
-        String typed = inputField.getText().trim();
-
-        if (typed.equals(currentSentence)) {
-            // Correct answer
-            player.addScore(10);
-            player.nextRound();
-            timerManager.addTime(5);
-
-            // Show positive feedback
-            feedbackLabel.setText("Correct! +10 points and +5 seconds!");
-            feedbackLabel.setForeground(Color.GREEN);
-
-            // Update displays
-            updateDisplays();
-
-            // Check for speed increase every 5 rounds
-            if ((player.getRound() - 1) % 5 == 0 && player.getRound() > 1) {
-                timerManager.adjustSpeedForRound(player.getRound());
-            }
-
-            loadNewSentence();
-
-        } else {
-            // Wrong answer
-            player.loseLife();
-            feedbackLabel.setText("Wrong! Life lost. Try again!");
-            feedbackLabel.setForeground(Color.RED);
-
-            // Clear input field and refocus
-            inputField.setText("");
-            inputField.requestFocus();
-
-            updateDisplays();
-
-            // Check if game should end
-            if (!player.isAlive()) {
-                endGame();
-            }
-        }
+        // Scoring, lives and speed-ups are decided by the engine, which calls back below
+        engine.submit(inputField.getText());
     }
 
     private void updateDisplays() {
@@ -457,9 +573,18 @@ public class GamePanel extends JFrame implements TimerManager.TimerCallback {
         }
     }
 
-    private void updateTimerDisplay() {
-        int time = timerManager.getTimeRemaining();
+    private void updateTypingStats() {
+        TypingMetrics metrics = engine.getMetrics();
+        wpmLabel.setText("WPM: " + Math.round(metrics.getNetWpm(TypingMetrics.Window.LAST_30_SECONDS)));
+        wpmLabel.setToolTipText(String.format(
+                "<html>Last 5s: %.0f WPM<br>Last 30s: %.0f WPM<br>Session: %.0f WPM (%.0f%% accuracy)</html>",
+                metrics.getNetWpm(TypingMetrics.Window.LAST_5_SECONDS),
+                metrics.getNetWpm(TypingMetrics.Window.LAST_30_SECONDS),
+                metrics.getNetWpm(TypingMetrics.Window.SESSION),
+                metrics.getAccuracy(TypingMetrics.Window.SESSION) * 100));
+    }
 
+    private void updateTimerDisplay(int time) {
         // Color coding and emoji for timer
         if (time <= 5) {
             timerLabel.setForeground(Color.RED);
@@ -473,29 +598,99 @@ public class GamePanel extends JFrame implements TimerManager.TimerCallback {
         }
     }
 
-    // TimerManager.TimerCallback implementation
+    // GameEngine.Listener implementation
+    @Override
+    public void onSentence(String sentence) {
+        currentSentence = sentence;
+        loadNewSentence();
+    }
+
+    @Override
+    public void onCorrect(int points, int bonusSeconds) {
+        // Show positive feedback
+        feedbackLabel.setText(bonusSeconds > 0 ? "Correct! +" + points + " points and +" + bonusSeconds + " seconds!"
+                : "Correct! +" + points + " points!");
+        feedbackLabel.setForeground(Color.GREEN);
+
+        // Update displays
+        updateDisplays();
+    }
+
+    @Override
+    public void onWrong() {
+        feedbackLabel.setText("Wrong! Life lost. Try again!");
+        feedbackLabel.setForeground(Color.RED);
+
+        // Clear input field and refocus
+        clearInput();
+        inputField.requestFocus();
+
+        updateDisplays();
+    }
+
     @Override
     public void onTimeUpdate(int timeRemaining) {
-        SwingUtilities.invokeLater(() -> updateTimerDisplay());
+        SwingUtilities.invokeLater(() -> updateTimerDisplay(timeRemaining));
     }
 
     @Override
-    public void onTimeUp() {
+    public void onGameOver(boolean timeUp) {
+        gameActive = false;
+        if (!timeUp) {
+            if (playback) {
+                // Called from inside the replay loop; let it finish reading first
+                SwingUtilities.invokeLater(() -> endGame());
+            } else {
+                endGame();
+            }
+            return;
+        }
+
         SwingUtilities.invokeLater(() -> {
-            gameActive = false;
             feedbackLabel.setText("Time's up! Game Over!");
             feedbackLabel.setForeground(Color.RED);
 
-            Timer delay = new Timer(2000, e -> endGame());
-            delay.setRepeats(false);
-            delay.start();
+            scheduler.schedule(key("game.end"), 2000, () -> endGame());
         });
     }
 
     private void endGame() {
         gameActive = false;
-        timerManager.stop();
-        new GameOverFrame(player, difficulty);
+        engine.stop();
+        scheduler.cancel(key("feedback.clear"));
+        scheduler.cancel(key("game.end"));
+        scheduler.cancel(key("stats.wpm"));
+
+        if (playback) {
+            // Nothing is saved for a replay; just report how it compared to the recording
+            scheduler.cancel(key("replay.tick"));
+            int recorded = replayPlayer.getRecordedScore();
+            String verdict = replayPlayer.getMismatches() > 0 ? "\nWARNING: the replay diverged from the recording."
+                    : recorded < 0 ? "\nThe recording ended early." : "";
+            JOptionPane.showMessageDialog(this,
+                    "Replay finished. Score: " + player.getScore() + verdict,
+                    "Replay",
+                    JOptionPane.INFORMATION_MESSAGE);
+            try {
+                replayPlayer.close();
+            } catch (IOException e) {
+                System.err.println("Error closing replay: " + e.getMessage());
+            }
+            new StartMenu();
+            dispose();
+            return;
+        }
+
+        if (engine.isAdaptive()) {
+            SkillModel.save(SkillModel.DEFAULT_FILE, player.getName(), engine.getSkill());
+        }
+
+        Path replayFile = null;
+        if (replayWriter != null) {
+            replayWriter.close();
+            replayFile = replayWriter.getPath();
+        }
+        new GameOverFrame(player, difficulty, adaptive, engine.getMetrics().snapshot(), replayFile);
         dispose();
     }
 }
@@ -0,0 +1,111 @@
+package utils;
+import managers.*;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.*;
+
+// Rank / Player / Score rows fetched from the leaderboard a page at a time, as the table
+// asks for them. Only a few recently used pages are kept, so memory follows the viewport
+// rather than the number of players.
+public class LeaderboardTableModel extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+
+    private static final int PAGE_SIZE = 100;
+    private static final int MAX_CACHED_PAGES = 8;
+    private static final String[] COLUMN_NAMES = {"Rank", "Player", "Score"};
+
+    private final transient Leaderboard leaderboard;
+    private int rowCount;
+
+    private static final class Page {
+        final List<Map.Entry<String, Integer>> rows;
+        final int[] ranks;
+
+        Page(List<Map.Entry<String, Integer>> rows, int[] ranks) {
+            this.rows = rows;
+            this.ranks = ranks;
+        }
+    }
+
+    // Least recently used page is dropped first
+    private final transient Map<Integer, Page> pages = new LinkedHashMap<Integer, Page>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Page> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+
+    public LeaderboardTableModel(Leaderboard leaderboard) {
+        this.leaderboard = leaderboard;
+        this.rowCount = leaderboard.size();
+    }
+
+    // Drops cached pages and picks up players added since the model was created
+    public void refresh() {
+        pages.clear();
+        rowCount = leaderboard.size();
+        fireTableDataChanged();
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Page page = pageFor(row);
+        int index = row % PAGE_SIZE;
+        if (index >= page.rows.size()) {
+            return ""; // Leaderboard shrank under us; refresh() will catch up
+        }
+
+        Map.Entry<String, Integer> entry = page.rows.get(index);
+        switch (column) {
+            case 0:
+                return "#" + page.ranks[index];
+            case 1:
+                return entry.getKey();
+            default:
+                return entry.getValue() + " pts";
+        }
+    }
+
+    public String getPlayerAt(int row) {
+        Page page = pageFor(row);
+        int index = row % PAGE_SIZE;
+        return index < page.rows.size() ? page.rows.get(index).getKey() : null;
+    }
+
+    private Page pageFor(int row) {
+        int number = row / PAGE_SIZE;
+        Page page = pages.get(number);
+        if (page == null) {
+            List<Map.Entry<String, Integer>> rows = leaderboard.range(number * PAGE_SIZE, PAGE_SIZE);
+
+            // Tied scores share a rank, so only the first row of each score needs a lookup
+            int[] ranks = new int[rows.size()];
+            for (int i = 0; i < rows.size(); i++) {
+                Map.Entry<String, Integer> entry = rows.get(i);
+                boolean tie = i > 0 && rows.get(i - 1).getValue().equals(entry.getValue());
+                ranks[i] = tie ? ranks[i - 1] : leaderboard.rankOf(entry.getKey(), entry.getValue());
+            }
+
+            page = new Page(rows, ranks);
+            pages.put(number, page);
+        }
+        return page;
+    }
+}
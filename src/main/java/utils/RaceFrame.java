@@ -0,0 +1,343 @@
+package utils;
+import managers.*;
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.table.DefaultTableModel;
+import javax.swing.text.*;
+import java.awt.*;
+import java.awt.event.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// A race against simulated typists over one course, with live standings. Race rules, not
+// GamePanel's: no lives or points, a wrong line is fixed and resubmitted, and one time limit
+// covers the whole course. Nothing is saved to the high score boards.
+public class RaceFrame extends JFrame {
+    private static final AtomicInteger ids = new AtomicInteger();
+    private static final int OPPONENTS = 9;
+    private static final int SENTENCES = 10;
+    private static final int SECONDS = 120;
+    private static final int TICK_MILLIS = 50;
+    private static final int SHOWN_PLACES = 10;
+
+    private final String playerName;
+    private final Difficulty difficulty;
+    private final Scheduler scheduler = SwingScheduler.getInstance();
+    private final String tickKey = "race-" + ids.incrementAndGet() + ".tick"; // The scheduler is shared by every window
+
+    private Race race;
+    private Racer racer;
+    private final List<Opponent> opponents = new ArrayList<>();
+    private boolean racing;
+    private boolean clearingInput;  // Set while the race itself empties the input field
+    private final Segment typedSegment = new Segment();
+    private final Segment inputSegment = new Segment();
+
+    // UI Components
+    private JLabel timerLabel, placeLabel, feedbackLabel;
+    private SentenceView sentenceView;
+    private JTextField inputField;
+    private DefaultTableModel standingsModel;
+
+    // A simulated racer with its own speed and typo rate; backspaces over every typo
+    private static final class Opponent {
+        final Racer racer;
+        final Random rand;
+        final long keyNanos;
+        final double typoRate;
+        long nextKeyNanos;
+        int position;
+
+        Opponent(Racer racer, Random rand, long startNanos) {
+            this.racer = racer;
+            this.rand = rand;
+            this.keyNanos = (long) (1e9 / (2 + rand.nextDouble() * 6));
+            this.typoRate = rand.nextDouble() * 0.08;
+            this.nextKeyNanos = startNanos + keyNanos;
+        }
+
+        // Types every key that is due by now
+        void typeUntil(long now, Race race) {
+            while (now >= nextKeyNanos && !racer.isFinished() && !race.isOver()) {
+                String sentence = racer.getCurrentSentence();
+                if (position < sentence.length()) {
+                    if (rand.nextDouble() < typoRate) {
+                        racer.keyTyped(position, '#');
+                        racer.keyDeleted(position);
+                    }
+                    racer.keyTyped(position, sentence.charAt(position));
+                    position++;
+                } else {
+                    racer.submit(sentence);
+                    position = 0;
+                }
+                nextKeyNanos += keyNanos / 2 + (long) (rand.nextDouble() * keyNanos);
+            }
+        }
+    }
+
+    public RaceFrame(String playerName, Difficulty difficulty) {
+        this.playerName = playerName;
+        this.difficulty = difficulty;
+
+        initializeComponents();
+        setupLayout();
+        setupEventHandlers();
+        setVisible(true);
+
+        // The course is drawn from the difficulty's sentences, usually preloaded by the start menu
+        inputField.setEnabled(false);
+        feedbackLabel.setText("Loading sentences...");
+        CompletableFuture<SentenceCorpus> corpus = CorpusRegistry.preload(difficulty);
+        corpus.whenComplete((result, error) -> SwingUtilities.invokeLater(() -> startRace(corpus)));
+    }
+
+    private void startRace(CompletableFuture<SentenceCorpus> corpus) {
+        Random rand = new Random();
+        try {
+            race = new Race(corpus.join(), rand.nextLong(), SENTENCES, SECONDS, GameClock.SYSTEM);
+        } catch (RuntimeException e) {
+            JOptionPane.showMessageDialog(this,
+                    "Could not load sentences: " + e.getMessage(),
+                    "Loading Error",
+                    JOptionPane.ERROR_MESSAGE);
+            new StartMenu();
+            dispose();
+            return;
+        }
+
+        racer = race.join(playerName);
+        List<Racer> others = new ArrayList<>();
+        for (int i = 1; i <= OPPONENTS; i++) {
+            others.add(race.join("Typist " + i));
+        }
+        race.start();
+        long now = race.getClock().nanoTime();
+        for (Racer other : others) {
+            opponents.add(new Opponent(other, new Random(rand.nextLong()), now));
+        }
+
+        racing = true;
+        sentenceView.setSentence(racer.getCurrentSentence());
+        inputField.setEnabled(true);
+        inputField.requestFocus();
+        feedbackLabel.setText(" ");
+        updateStandings();
+
+        // Opponents type, and the standings and clock refresh, once per tick
+        scheduler.scheduleRepeating(tickKey, TICK_MILLIS, () -> tick());
+    }
+
+    private void tick() {
+        long now = race.getClock().nanoTime();
+        for (Opponent opponent : opponents) {
+            opponent.typeUntil(now, race);
+        }
+        updateStandings();
+        if (race.isOver()) {
+            endRace();
+        }
+    }
+
+    private void initializeComponents() {
+        setTitle("Typing Speed Game - Race");
+        setSize(800, 600);
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setLocationRelativeTo(null);
+        getContentPane().setBackground(new Color(240, 248, 255));
+
+        timerLabel = new JLabel("Time: " + SECONDS, JLabel.CENTER);
+        timerLabel.setFont(new Font("Arial", Font.BOLD, 16));
+        placeLabel = new JLabel("Place: -", JLabel.CENTER);
+        placeLabel.setFont(new Font("Arial", Font.BOLD, 16));
+
+        sentenceView = new SentenceView(new Font("Courier New", Font.PLAIN, 18));
+        sentenceView.setFocusable(false);
+        sentenceView.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(new Color(100, 149, 237), 2),
+                BorderFactory.createEmptyBorder(15, 15, 15, 15)
+        ));
+
+        inputField = new JTextField();
+        inputField.setFont(new Font("Courier New", Font.PLAIN, 18));
+        inputField.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(new Color(76, 175, 80), 2),
+                BorderFactory.createEmptyBorder(10, 15, 10, 15)
+        ));
+        inputField.setTransferHandler(null); // No pasting the sentence in
+        inputField.setComponentPopupMenu(null);
+
+        feedbackLabel = new JLabel(" ", JLabel.CENTER);
+        feedbackLabel.setFont(new Font("Arial", Font.BOLD, 16));
+
+        standingsModel = new DefaultTableModel(new Object[] {"Place", "Player", "Sentences", "WPM"}, 0) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+    }
+
+    private void setupLayout() {
+        setLayout(new BorderLayout());
+
+        JPanel headerPanel = new JPanel(new GridLayout(1, 3));
+        headerPanel.setBackground(new Color(63, 81, 181));
+        headerPanel.setBorder(BorderFactory.createEmptyBorder(10, 20, 10, 20));
+        JLabel headerLabel = new JLabel("RACE - " + difficulty.name(), JLabel.CENTER);
+        headerLabel.setFont(new Font("Arial", Font.BOLD, 20));
+        headerLabel.setForeground(Color.WHITE);
+        timerLabel.setForeground(Color.WHITE);
+        placeLabel.setForeground(Color.WHITE);
+        headerPanel.add(timerLabel);
+        headerPanel.add(headerLabel);
+        headerPanel.add(placeLabel);
+
+        JPanel typingPanel = new JPanel(new BorderLayout(10, 10));
+        typingPanel.setBackground(new Color(240, 248, 255));
+        typingPanel.setBorder(BorderFactory.createEmptyBorder(20, 30, 10, 30));
+        typingPanel.add(sentenceView, BorderLayout.NORTH);
+        typingPanel.add(inputField, BorderLayout.CENTER);
+        typingPanel.add(feedbackLabel, BorderLayout.SOUTH);
+
+        JTable table = new JTable(standingsModel);
+        table.setFocusable(false);
+        table.setRowSelectionAllowed(false);
+        table.getTableHeader().setReorderingAllowed(false);
+        table.setFont(new Font("Arial", Font.PLAIN, 13));
+        table.setRowHeight(22);
+        JScrollPane scrollPane = new JScrollPane(table);
+        scrollPane.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createEmptyBorder(0, 30, 20, 30),
+                BorderFactory.createLineBorder(new Color(200, 200, 200), 1)
+        ));
+        scrollPane.setBackground(new Color(240, 248, 255));
+
+        add(headerPanel, BorderLayout.NORTH);
+        add(typingPanel, BorderLayout.CENTER);
+        add(scrollPane, BorderLayout.SOUTH);
+    }
+
+    private void setupEventHandlers() {
+        inputField.addActionListener(e -> {
+            if (racing) {
+                submit();
+            }
+        });
+
+        inputField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                if (racing && !clearingInput) {
+                    try {
+                        e.getDocument().getText(e.getOffset(), e.getLength(), typedSegment);
+                        for (int i = 0; i < typedSegment.count; i++) {
+                            racer.keyTyped(e.getOffset() + i, typedSegment.array[typedSegment.offset + i]);
+                        }
+                    } catch (BadLocationException ex) {
+                        ex.printStackTrace();
+                    }
+                }
+                updateHighlighting(e.getOffset());
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                if (racing && !clearingInput) {
+                    for (int i = e.getLength() - 1; i >= 0; i--) {
+                        racer.keyDeleted(e.getOffset() + i);
+                    }
+                }
+                updateHighlighting(e.getOffset());
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                // Attributes only; the text is unchanged
+            }
+        });
+
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                scheduler.cancel(tickKey);
+            }
+        });
+    }
+
+    private void submit() {
+        if (!racer.submit(inputField.getText())) {
+            // Race rules: no lives to lose, the line just has to be fixed
+            feedbackLabel.setText("Not quite - fix the line and press Enter");
+            feedbackLabel.setForeground(Color.RED);
+            return;
+        }
+
+        clearingInput = true;
+        inputField.setText("");
+        clearingInput = false;
+        updateStandings();
+        if (racer.isFinished()) {
+            inputField.setEnabled(false);
+            feedbackLabel.setText("Finished! Waiting for the others...");
+            feedbackLabel.setForeground(new Color(46, 125, 50));
+        } else {
+            sentenceView.setSentence(racer.getCurrentSentence());
+            feedbackLabel.setText("Sentence " + (racer.getCompleted() + 1) + " of " + race.getCourseLength());
+            feedbackLabel.setForeground(new Color(63, 81, 181));
+        }
+    }
+
+    private void updateHighlighting(int changedFrom) {
+        if (racer == null || racer.isFinished()) return;
+
+        Document doc = inputField.getDocument();
+        try {
+            doc.getText(0, doc.getLength(), inputSegment);
+            sentenceView.update(inputSegment, changedFrom);
+        } catch (BadLocationException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    private void updateStandings() {
+        RaceStandings standings = race.getStandings();
+        standings.refresh();
+
+        List<Racer> top = standings.top(SHOWN_PLACES);
+        standingsModel.setRowCount(top.size());
+        for (int i = 0; i < top.size(); i++) {
+            Racer r = top.get(i);
+            standingsModel.setValueAt("#" + standings.positionOf(r), i, 0);
+            standingsModel.setValueAt(r == racer ? r.getName() + " (you)" : r.getName(), i, 1);
+            standingsModel.setValueAt(standings.progressOf(r) + "/" + race.getCourseLength(), i, 2);
+            standingsModel.setValueAt(Math.round(r.getWpm()), i, 3);
+        }
+
+        placeLabel.setText("Place: #" + standings.positionOf(racer) + " of " + standings.size());
+        timerLabel.setText("Time: " + (race.getTimeRemainingMillis() + 999) / 1000);
+    }
+
+    private void endRace() {
+        racing = false;
+        scheduler.cancel(tickKey);
+        inputField.setEnabled(false);
+
+        RaceStandings standings = race.getStandings();
+        standings.refresh();
+        JOptionPane.showMessageDialog(this,
+                String.format("Race over! You placed #%d of %d with %d of %d sentences at %.0f WPM.",
+                        standings.positionOf(racer), standings.size(), racer.getCompleted(),
+                        race.getCourseLength(), racer.getWpm()),
+                "Race",
+                JOptionPane.INFORMATION_MESSAGE);
+        new StartMenu();
+        dispose();
+    }
+}
@@ -0,0 +1,323 @@
+package utils;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Shows the sentence to type with each character colored by how it was typed. The sentence is
+// shaped into glyphs once when it is set; after that a keystroke only updates a state byte per
+// changed character and repaints those characters' cells, so its cost doesn't grow with the
+// sentence length. Text wraps at spaces to the component's width.
+public class SentenceView extends JComponent {
+    private static final byte UNTYPED = 0;
+    private static final byte CORRECT = 1;
+    private static final byte INCORRECT = 2;
+    private static final byte CURRENT = 3;
+
+    private static final Color[] FOREGROUND = {Color.BLACK, Color.GREEN, Color.RED, Color.BLUE};
+    private static final Color[] BACKGROUND = {null, null, Color.PINK, Color.LIGHT_GRAY};
+
+    private Font boldFont;
+    private FontRenderContext frc;
+    private int ascent;
+    private int lineHeight;
+
+    // Single-glyph vectors shared by every sentence, by glyph code
+    private final Map<Integer, GlyphVector> plainGlyphs = new HashMap<>();
+    private final Map<Integer, GlyphVector> boldGlyphs = new HashMap<>();
+
+    private char[] chars = new char[0];
+    private GlyphVector[][] glyphs = {new GlyphVector[0], new GlyphVector[0]};
+    private float[] x = new float[0];         // Position of each character on one unwrapped line
+    private float[] advance = new float[0];
+    private byte[] states = new byte[0];
+    private int typedLength;                  // Length of the input the states reflect
+    private String extraText = "";            // Typed past the end of the sentence
+
+    // Wrapped layout for wrapWidth
+    private int wrapWidth = -1;
+    private int[] lineOf = new int[0];
+    private float[] lineX = new float[0];
+    private int[] lineStart = {0};            // First character of each line, plus the length at the end
+
+    public SentenceView(Font font) {
+        setOpaque(true);
+        setBackground(Color.WHITE);
+        setFont(font);
+    }
+
+    @Override
+    public void setFont(Font font) {
+        super.setFont(font);
+        boldFont = font.deriveFont(Font.BOLD);
+        FontMetrics metrics = getFontMetrics(font);
+        frc = metrics.getFontRenderContext();
+        ascent = metrics.getAscent();
+        lineHeight = metrics.getHeight();
+        plainGlyphs.clear();
+        boldGlyphs.clear();
+        if (chars.length > 0) {
+            setSentence(new String(chars));
+        }
+    }
+
+    // Full rebuild: shapes the new sentence and resets every character to untyped
+    public void setSentence(String sentence) {
+        chars = sentence.toCharArray();
+        int length = chars.length;
+
+        // One glyph per char, no layout: positions come from the plain font's advances
+        GlyphVector shaped = getFont().createGlyphVector(frc, chars);
+        glyphs = new GlyphVector[][] {new GlyphVector[length], new GlyphVector[length]};
+        GlyphVector boldShaped = boldFont.createGlyphVector(frc, chars);
+        x = new float[length];
+        advance = new float[length];
+        for (int i = 0; i < length; i++) {
+            glyphs[0][i] = glyph(plainGlyphs, getFont(), shaped.getGlyphCode(i));
+            glyphs[1][i] = glyph(boldGlyphs, boldFont, boldShaped.getGlyphCode(i));
+            x[i] = (float) shaped.getGlyphPosition(i).getX();
+            advance[i] = shaped.getGlyphMetrics(i).getAdvance();
+        }
+
+        states = new byte[length];
+        if (length > 0) {
+            states[0] = CURRENT;
+        }
+        typedLength = 0;
+        extraText = "";
+
+        wrapWidth = -1;
+        relayout();
+        revalidate();
+        repaint();
+    }
+
+    private GlyphVector glyph(Map<Integer, GlyphVector> cache, Font font, int code) {
+        return cache.computeIfAbsent(code, c -> font.createGlyphVector(frc, new int[] {c}));
+    }
+
+    // Incremental update when the caller doesn't know where the input changed
+    public void update(CharSequence input) {
+        int from = 0;
+        int common = Math.min(typedLength, Math.min(input.length(), chars.length));
+        while (from < common && stateFor(from, input) == states[from]) {
+            from++;
+        }
+        update(input, from);
+    }
+
+    // Re-evaluates the characters from the first changed input position up to the old and new
+    // cursor, and repaints the ones whose state changed
+    public void update(CharSequence input, int changedFrom) {
+        int length = chars.length;
+        int end = Math.min(length, Math.max(typedLength, input.length()) + 1);
+        int dirtyFrom = Integer.MAX_VALUE;
+        int dirtyTo = -1;
+        for (int i = Math.max(0, changedFrom); i < end; i++) {
+            byte state = stateFor(i, input);
+            if (state != states[i]) {
+                states[i] = state;
+                dirtyFrom = Math.min(dirtyFrom, i);
+                dirtyTo = i;
+            }
+        }
+        typedLength = input.length();
+        if (dirtyTo >= 0) {
+            // Bold glyphs and antialiasing can spill into the neighbouring cells
+            repaintCells(Math.max(0, dirtyFrom - 1), Math.min(length - 1, dirtyTo + 1));
+        }
+
+        // Extra text past the end of the sentence is only touched when it exists
+        if (input.length() > length || !extraText.isEmpty()) {
+            String extra = input.length() > length ? input.subSequence(length, input.length()).toString() : "";
+            if (!extra.equals(extraText)) {
+                boolean wrapped = extraOnNewLine();
+                repaint(extraBounds());
+                extraText = extra;
+                repaint(extraBounds());
+                if (wrapped != extraOnNewLine()) {
+                    revalidate();
+                }
+            }
+        }
+    }
+
+    private byte stateFor(int i, CharSequence input) {
+        if (i < input.length()) {
+            return input.charAt(i) == chars[i] ? CORRECT : INCORRECT;
+        }
+        return i == input.length() ? CURRENT : UNTYPED;
+    }
+
+    // Bounds of character i's cell
+    public Rectangle getCellBounds(int i) {
+        Insets insets = getInsets();
+        int left = insets.left + (int) Math.floor(lineX[i]);
+        int right = insets.left + (int) Math.ceil(lineX[i] + advance[i]);
+        return new Rectangle(left, insets.top + lineOf[i] * lineHeight, right - left, lineHeight);
+    }
+
+    private void repaintCells(int from, int to) {
+        if (lineOf[from] == lineOf[to]) {
+            repaint(getCellBounds(from).union(getCellBounds(to)));
+        } else {
+            Insets insets = getInsets();
+            repaint(insets.left, insets.top + lineOf[from] * lineHeight,
+                    getWidth() - insets.left - insets.right, (lineOf[to] - lineOf[from] + 1) * lineHeight);
+        }
+    }
+
+    // Greedy word wrap of the shaped line into the current width
+    private void relayout() {
+        Insets insets = getInsets();
+        int width = getWidth() - insets.left - insets.right;
+        if (width == wrapWidth) return;
+        wrapWidth = width;
+
+        int length = chars.length;
+        lineOf = new int[length];
+        lineX = new float[length];
+        int[] starts = new int[length + 2];
+        int lines = 1;
+        int first = 0;          // First character on the current line
+        int breakAt = -1;       // Character after the last space on the current line
+        for (int i = 0; i < length; i++) {
+            if (width > 0 && i > first && chars[i] != ' ' && x[i] + advance[i] - x[first] > width) {
+                first = breakAt > first ? breakAt : i;
+                starts[lines++] = first;
+                for (int j = first; j < i; j++) {
+                    lineOf[j] = lines - 1;
+                    lineX[j] = x[j] - x[first];
+                }
+            }
+            lineOf[i] = lines - 1;
+            lineX[i] = x[i] - x[first];
+            if (chars[i] == ' ') {
+                breakAt = i + 1;
+            }
+        }
+        starts[lines] = length;
+        lineStart = Arrays.copyOf(starts, lines + 1);
+    }
+
+    private int lineCount() {
+        return Math.max(1, lineStart.length - 1) + (extraOnNewLine() ? 1 : 0);
+    }
+
+    private float lineEnd() {
+        int length = chars.length;
+        return length == 0 ? 0 : lineX[length - 1] + advance[length - 1];
+    }
+
+    private boolean extraOnNewLine() {
+        if (extraText.isEmpty() || wrapWidth <= 0) return false;
+        return lineEnd() + extraWidth() > wrapWidth && lineEnd() > 0;
+    }
+
+    private String extraLabel() {
+        return " [EXTRA: " + extraText + "]";
+    }
+
+    private int extraWidth() {
+        return getFontMetrics(boldFont).stringWidth(extraLabel());
+    }
+
+    private Rectangle extraBounds() {
+        if (extraText.isEmpty()) return new Rectangle();
+        Insets insets = getInsets();
+        int line = Math.max(0, lineStart.length - 2);
+        int left = (int) Math.floor(lineEnd());
+        if (extraOnNewLine()) {
+            line++;
+            left = 0;
+        }
+        return new Rectangle(insets.left + left, insets.top + line * lineHeight, extraWidth() + 1, lineHeight);
+    }
+
+    @Override
+    public void setBounds(int x, int y, int width, int height) {
+        super.setBounds(x, y, width, height);
+        int lines = lineCount();
+        relayout();
+        if (lineCount() != lines) {
+            revalidate();
+            repaint();
+        }
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        if (isPreferredSizeSet()) {
+            return super.getPreferredSize();
+        }
+        Insets insets = getInsets();
+        int length = chars.length;
+        int width = length == 0 ? 0 : (int) Math.ceil(x[length - 1] + advance[length - 1]);
+        return new Dimension(insets.left + insets.right + width, insets.top + insets.bottom + lineCount() * lineHeight);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2 = (Graphics2D) g;
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        g2.setColor(getBackground());
+        g2.fillRect(clip.x, clip.y, clip.width, clip.height);
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+        // Only the lines, and the characters within them, that intersect the clip
+        Insets insets = getInsets();
+        int lines = lineStart.length - 1;
+        int firstLine = Math.max(0, (clip.y - insets.top) / lineHeight);
+        int lastLine = Math.min(lines - 1, (clip.y + clip.height - 1 - insets.top) / lineHeight);
+        for (int line = firstLine; line <= lastLine; line++) {
+            int top = insets.top + line * lineHeight;
+            // One extra cell on each side, whose glyph may reach into the clip
+            int from = Math.max(lineStart[line], firstCellEndingAfter(line, clip.x - insets.left) - 1);
+            int to = lineStart[line + 1];
+            for (int i = from; i < to && (i == from || insets.left + lineX[i - 1] < clip.x + clip.width); i++) {
+                byte state = states[i];
+                float left = insets.left + lineX[i];
+                if (BACKGROUND[state] != null) {
+                    g2.setColor(BACKGROUND[state]);
+                    int cellLeft = (int) Math.floor(left);
+                    g2.fillRect(cellLeft, top, (int) Math.ceil(left + advance[i]) - cellLeft, lineHeight);
+                }
+                g2.setColor(FOREGROUND[state]);
+                g2.drawGlyphVector(glyphs[state == UNTYPED ? 0 : 1][i], left, top + ascent);
+            }
+        }
+
+        if (!extraText.isEmpty()) {
+            Rectangle extra = extraBounds();
+            if (extra.intersects(clip)) {
+                g2.setFont(boldFont);
+                g2.setColor(BACKGROUND[INCORRECT]);
+                g2.fillRect(extra.x, extra.y, extra.width, extra.height);
+                g2.setColor(FOREGROUND[INCORRECT]);
+                g2.drawString(extraLabel(), extra.x, extra.y + ascent);
+            }
+        }
+    }
+
+    // Binary search for the first character on the line whose cell reaches past clipX
+    private int firstCellEndingAfter(int line, int clipX) {
+        int lo = lineStart[line];
+        int hi = lineStart[line + 1];
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (lineX[mid] + advance[mid] <= clipX) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -1,4 +1,5 @@
 package utils;
+import managers.CorpusRegistry;
 import managers.Difficulty;
 import managers.Player;
 import javax.swing.*;
@@ -9,11 +10,13 @@ public class StartMenu extends JFrame {
     private JTextField nameField;
     private JRadioButton easyButton, mediumButton, hardButton;
     private ButtonGroup difficultyGroup;
+    private JCheckBox adaptiveBox;
     private JButton startButton;
+    private JButton raceButton;
 
     public StartMenu() {
         setTitle("Typing Speed Game");
-        setSize(500, 600);
+        setSize(500, 640);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLocationRelativeTo(null);
 
@@ -24,6 +27,9 @@ public class StartMenu extends JFrame {
         setupLayout();
         setupEventHandlers();
         setVisible(true);
+
+        // Load sentence files while the player is still choosing
+        CorpusRegistry.preloadAll();
     }
 
     private void initializeComponents() {
@@ -67,6 +73,13 @@ public class StartMenu extends JFrame {
         difficultyGroup.add(mediumButton);
         difficultyGroup.add(hardButton);
 
+        // Adaptive mode: the difficulty above is only the starting point
+        adaptiveBox = new JCheckBox("Adaptive (sentences and time follow your typing)");
+        adaptiveBox.setFont(radioFont);
+        adaptiveBox.setForeground(new Color(63, 81, 181));
+        adaptiveBox.setBackground(new Color(240, 248, 255));
+        adaptiveBox.setFocusPainted(false);
+
         // Enhanced start button
         startButton = new JButton("START GAME");
         startButton.setPreferredSize(new Dimension(200, 50));
@@ -92,6 +105,19 @@ public class StartMenu extends JFrame {
                 startButton.setBackground(new Color(76, 175, 80));
             }
         });
+
+        // Race against simulated typists on the selected difficulty's sentences
+        raceButton = new JButton("RACE");
+        raceButton.setPreferredSize(new Dimension(120, 50));
+        raceButton.setFont(new Font("Arial", Font.BOLD, 16));
+        raceButton.setForeground(Color.WHITE);
+        raceButton.setBackground(new Color(63, 81, 181));
+        raceButton.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(new Color(48, 63, 159), 2),
+                BorderFactory.createEmptyBorder(10, 20, 10, 20)
+        ));
+        raceButton.setFocusPainted(false);
+        raceButton.setCursor(new Cursor(Cursor.HAND_CURSOR));
     }
 
     private void setupLayout() {
@@ -135,6 +161,8 @@ public class StartMenu extends JFrame {
         difficultyPanel.add(mediumButton);
         difficultyPanel.add(Box.createVerticalStrut(8));
         difficultyPanel.add(hardButton);
+        difficultyPanel.add(Box.createVerticalStrut(12));
+        difficultyPanel.add(adaptiveBox);
 
         JPanel difficultySection = createStyledSection("Select Difficulty", difficultyPanel);
 
@@ -142,6 +170,7 @@ public class StartMenu extends JFrame {
         JPanel buttonPanel = new JPanel();
         buttonPanel.setBackground(new Color(240, 248, 255));
         buttonPanel.add(startButton);
+        buttonPanel.add(raceButton);
 
         // Add all sections with spacing
         mainPanel.add(nameSection);
@@ -207,9 +236,30 @@ public class StartMenu extends JFrame {
 
         // Enter key on name field
         nameField.addActionListener(e -> startGame());
+
+        raceButton.addActionListener(e -> startRace());
     }
 
     private void startGame() {
+        String playerName = readPlayerName();
+        if (playerName == null) return;
+
+        // Create player and start game
+        Player player = new Player(playerName);
+        new GamePanel(player, selectedDifficulty(), adaptiveBox.isSelected());
+        dispose();
+    }
+
+    private void startRace() {
+        String playerName = readPlayerName();
+        if (playerName == null) return;
+
+        new RaceFrame(playerName, selectedDifficulty());
+        dispose();
+    }
+
+    // The entered name, or null after asking for a valid one
+    private String readPlayerName() {
         String playerName = nameField.getText().trim();
 
         // Error handling for empty name
@@ -219,22 +269,17 @@ public class StartMenu extends JFrame {
                     "Invalid Name",
                     JOptionPane.WARNING_MESSAGE);
             nameField.requestFocus();
-            return;
+            return null;
         }
+        return playerName;
+    }
 
-        // Get selected difficulty
-        Difficulty difficulty;
+    private Difficulty selectedDifficulty() {
         if (easyButton.isSelected()) {
-            difficulty = Difficulty.EASY;
+            return Difficulty.EASY;
         } else if (mediumButton.isSelected()) {
-            difficulty = Difficulty.MEDIUM;
-        } else {
-            difficulty = Difficulty.HARD;
+            return Difficulty.MEDIUM;
         }
-
-        // Create player and start game
-        Player player = new Player(playerName);
-        new GamePanel(player, difficulty);
-        dispose();
+        return Difficulty.HARD;
     }
 }